@@ -0,0 +1,131 @@
+package cz.lukaskabc.cvut.processor.benchmarks;
+
+import com.sun.source.util.JavacTask;
+import cz.lukaskabc.cvut.processor.EnvironmentUtils;
+import cz.lukaskabc.cvut.processor.Log;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sources compiled by javac with the processing environment kept available after the compilation,
+ * so the processor components can be invoked repeatedly outside of annotation processing rounds.
+ */
+public class CompiledSources {
+
+    private final EnvironmentUtils envUtils;
+
+    private final Set<Element> configurationElements;
+
+    private CompiledSources(EnvironmentUtils envUtils, Set<Element> configurationElements) {
+        this.envUtils = envUtils;
+        this.configurationElements = configurationElements;
+    }
+
+    /**
+     * Analyzes the sources (without generating class files) and initializes {@link Log} with the environment
+     *
+     * @param sources source files to compile
+     * @throws IllegalStateException when the compilation fails
+     */
+    public static CompiledSources compile(List<JavaFileObject> sources) {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var errors = new ArrayList<String>();
+        var options = List.of("-implicit:none", "-classpath", System.getProperty("java.class.path"));
+
+        var task = (JavacTask) compiler.getTask(null, null, diagnostic -> {
+            if (diagnostic.getKind() == javax.tools.Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.toString());
+            }
+        }, options, null, sources);
+
+        var capturingProcessor = new CapturingProcessor();
+        task.setProcessors(List.of(capturingProcessor));
+
+        try {
+            // analysis does not close the compiler (unlike call), so elements can be completed later
+            task.analyze();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Failed to compile benchmark sources: " + String.join("\n", errors));
+        }
+
+        var envUtils = new EnvironmentUtils(capturingProcessor.processingEnvironment);
+        Log.init(envUtils);
+        return new CompiledSources(envUtils, capturingProcessor.elements);
+    }
+
+    /**
+     * Creates a source file object with the source code
+     *
+     * @param qualifiedName qualified name of the top level class
+     * @param code          source code of the class
+     */
+    public static JavaFileObject source(String qualifiedName, String code) {
+        var uri = URI.create("string:///" + qualifiedName.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    public EnvironmentUtils getEnvUtils() {
+        return envUtils;
+    }
+
+    /**
+     * @return elements annotated with {@link ConfigurationProperties @ConfigurationProperties}
+     */
+    public Set<Element> getConfigurationElements() {
+        return configurationElements;
+    }
+
+    /**
+     * Keeps the processing environment and collects elements annotated with
+     * {@link ConfigurationProperties @ConfigurationProperties}
+     */
+    @SupportedAnnotationTypes("*")
+    private static class CapturingProcessor extends AbstractProcessor {
+
+        private final Set<Element> elements = new LinkedHashSet<>();
+
+        private ProcessingEnvironment processingEnvironment;
+
+        @Override
+        public synchronized void init(ProcessingEnvironment processingEnv) {
+            super.init(processingEnv);
+            this.processingEnvironment = processingEnv;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            var annotationType = processingEnvironment.getElementUtils().getTypeElement(ConfigurationProperties.class.getName());
+            if (annotationType != null) {
+                elements.addAll(roundEnv.getElementsAnnotatedWith(annotationType));
+            }
+            return false;
+        }
+    }
+}
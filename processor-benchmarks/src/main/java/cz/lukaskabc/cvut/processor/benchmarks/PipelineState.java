@@ -0,0 +1,159 @@
+package cz.lukaskabc.cvut.processor.benchmarks;
+
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.DocumentedElement;
+import cz.lukaskabc.cvut.processor.ElementDecorator;
+import cz.lukaskabc.cvut.processor.ProcessorConfiguration;
+import cz.lukaskabc.cvut.processor.descriptor.ConstructorIndex;
+import cz.lukaskabc.cvut.processor.docsgenerator.ElementDecoratorDocGenerator;
+import cz.lukaskabc.cvut.processor.docsgenerator.TemplateDocsGenerator;
+import cz.lukaskabc.cvut.processor.formatter.Formatter;
+import cz.lukaskabc.cvut.processor.formatter.HTMLFormatter;
+import cz.lukaskabc.cvut.processor.formatter.MDFormatter;
+import cz.lukaskabc.cvut.processor.visitor.DefaultValueCollector;
+import cz.lukaskabc.cvut.processor.visitor.PropertiesClassScanner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input of the benchmarks, every phase of the pipeline is prepared from the results of the previous phases
+ */
+@State(Scope.Benchmark)
+public class PipelineState {
+
+    private static final List<String> TERMIT_FIXTURES = List.of("Constants", "TermitConfiguration",
+            "FullTermitConfiguration", "TermitRecordConfiguration");
+
+    private static final String TERMIT_PACKAGE = "cz.lukaskabc.cvut.processor.configuration.termit";
+
+    /**
+     * {@code termit} for TermIt fixtures or the number of generated synthetic properties
+     */
+    @Param({"termit", "100", "1000", "10000"})
+    public String input;
+
+    @Param({"HTML", "MD"})
+    public String format;
+
+    CompiledSources sources;
+
+    Formatter formatter;
+
+    /**
+     * Configuration classes annotated with {@link ConfigurationProperties @ConfigurationProperties}
+     */
+    List<TypeElement> configurationTypes;
+
+    List<ElementDecorator> decorators;
+
+    List<DecoratorSnapshot> snapshots;
+
+    /**
+     * Snapshots without hidden ones
+     */
+    List<DecoratorSnapshot> visibleSnapshots;
+
+    List<DocumentedElement> documentedElements;
+
+    /**
+     * Descriptions before the final cleanup by the formatter
+     */
+    List<String> rawDescriptions;
+
+    ElementDecoratorDocGenerator docGenerator;
+
+    TemplateDocsGenerator templateGenerator;
+
+    Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sources = CompiledSources.compile(loadSources());
+        formatter = format.equals("MD") ? new MDFormatter(false) : new HTMLFormatter();
+
+        configurationTypes = sources.getConfigurationElements().stream()
+                .filter(element -> element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD)
+                .map(TypeElement.class::cast)
+                .toList();
+
+        decorators = scan();
+
+        var defaultValueCollector = new DefaultValueCollector(sources.getEnvUtils(), new ConstructorIndex(), false);
+        for (var decorator : decorators) {
+            var defaultValue = defaultValueCollector.findDefaultValue(decorator);
+            if (defaultValue != null) {
+                decorator.setDefaultValue(defaultValue);
+            }
+        }
+
+        docGenerator = new ElementDecoratorDocGenerator(formatter);
+        snapshots = decorators.stream().map(docGenerator::snapshot).toList();
+        visibleSnapshots = snapshots.stream().filter(snapshot -> !snapshot.isHidden()).toList();
+        documentedElements = visibleSnapshots.stream().map(docGenerator::generate).toList();
+
+        rawDescriptions = new ArrayList<>();
+        for (var snapshot : snapshots) {
+            if (snapshot.doc() != null) {
+                rawDescriptions.add(snapshot.doc().text());
+            }
+            rawDescriptions.add(snapshot.constraints());
+        }
+
+        outputFile = Files.createTempFile("configuration-benchmark", "." + formatter.getFileExtension());
+        templateGenerator = new TemplateDocsGenerator(ProcessorConfiguration.USE_TEMPLATE_SQUARE_BRACKET_SYNTAX, formatter);
+        templateGenerator.loadTemplate(outputFile.toString(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    /**
+     * Scans all configuration types with a new scanner
+     *
+     * @return decorators of all found configuration options
+     */
+    List<ElementDecorator> scan() {
+        var scanner = new PropertiesClassScanner(sources.getEnvUtils(), new ConstructorIndex(),
+                ProcessorConfiguration.REQUIRE_GETTER_FOR_PROPERTIES, "", false);
+        var result = new ArrayList<ElementDecorator>();
+        for (var type : configurationTypes) {
+            scanner.visitConfiguration(type, type, type.getAnnotation(ConfigurationProperties.class), result,
+                    new ArrayList<>(), true);
+        }
+        return result;
+    }
+
+    private List<JavaFileObject> loadSources() {
+        if (!input.equals("termit")) {
+            return SyntheticSources.generate(Integer.parseInt(input));
+        }
+
+        var result = new ArrayList<JavaFileObject>();
+        for (var name : TERMIT_FIXTURES) {
+            try (var stream = PipelineState.class.getResourceAsStream("/fixtures/termit/" + name + ".java")) {
+                if (stream == null) {
+                    throw new IllegalStateException("Missing TermIt fixture: " + name);
+                }
+                result.add(CompiledSources.source(TERMIT_PACKAGE + "." + name,
+                        new String(stream.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package cz.lukaskabc.cvut.processor.benchmarks;
+
+import cz.lukaskabc.cvut.processor.ElementDecorator;
+import cz.lukaskabc.cvut.processor.descriptor.ConstructorIndex;
+import cz.lukaskabc.cvut.processor.visitor.DefaultValueCollector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the individual phases of the annotation processor pipeline.
+ * <p>
+ * Sources are compiled once per trial, each benchmark measures a single phase
+ * on the results of the previous phases prepared by {@link PipelineState}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class ProcessorPipelineBenchmark {
+
+    /**
+     * Scanning of configuration classes for configuration options
+     */
+    @Benchmark
+    public List<ElementDecorator> scanning(PipelineState state) {
+        return state.scan();
+    }
+
+    /**
+     * Resolution of default values with a new collector (without cached imports, symbols and constructors)
+     */
+    @Benchmark
+    public void defaultValueResolution(PipelineState state, Blackhole blackhole) {
+        var collector = new DefaultValueCollector(state.sources.getEnvUtils(), new ConstructorIndex(), false);
+        for (var decorator : state.decorators) {
+            blackhole.consume(collector.findDefaultValue(decorator));
+        }
+    }
+
+    /**
+     * Rendering of Javadoc comments and constraints into snapshots
+     */
+    @Benchmark
+    public void snapshotRendering(PipelineState state, Blackhole blackhole) {
+        for (var decorator : state.decorators) {
+            blackhole.consume(state.docGenerator.snapshot(decorator));
+        }
+    }
+
+    /**
+     * Composition of the documentation from snapshots
+     */
+    @Benchmark
+    public void rendering(PipelineState state, Blackhole blackhole) {
+        for (var snapshot : state.snapshots) {
+            blackhole.consume(state.docGenerator.generate(snapshot));
+        }
+    }
+
+    /**
+     * Final cleanup of the rendered text by the formatter
+     */
+    @Benchmark
+    public void formatterCleanup(PipelineState state, Blackhole blackhole) {
+        for (var text : state.rawDescriptions) {
+            text = state.formatter.removeDoubleSpaces(text);
+            blackhole.consume(state.formatter.removeLeadingSpacesAndLineBreaks(text));
+        }
+    }
+
+    /**
+     * Processing of the output template and writing of the output file
+     */
+    @Benchmark
+    public void templateOutput(PipelineState state) {
+        state.templateGenerator.generate(state.documentedElements);
+    }
+
+    /**
+     * Composition of the documentation while the template is processed and writing of the output file
+     */
+    @Benchmark
+    public void lazyTemplateOutput(PipelineState state) {
+        state.templateGenerator.generate(state.visibleSnapshots, state.docGenerator::generate);
+    }
+}
@@ -0,0 +1,137 @@
+package cz.lukaskabc.cvut.processor.benchmarks;
+
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates configuration properties classes with the requested number of documented properties.
+ * <p>
+ * Each class holds up to {@link #PROPERTIES_PER_CLASS} properties (half of them in a nested class)
+ * with Javadoc comments, validation constraints and default values of several kinds
+ * (literals, constant expressions, references to constants and Duration factories).
+ */
+public final class SyntheticSources {
+
+    public static final String PACKAGE = "cz.lukaskabc.cvut.processor.benchmarks.synthetic";
+
+    private static final int PROPERTIES_PER_CLASS = 100;
+
+    private SyntheticSources() {
+    }
+
+    /**
+     * @param propertyCount total number of generated properties
+     * @return generated source files
+     */
+    public static List<JavaFileObject> generate(int propertyCount) {
+        var sources = new ArrayList<JavaFileObject>();
+        sources.add(CompiledSources.source(PACKAGE + ".Defaults", defaultsClass()));
+
+        for (int start = 0, classIndex = 0; start < propertyCount; start += PROPERTIES_PER_CLASS, classIndex++) {
+            var className = "SyntheticConfiguration" + classIndex;
+            var count = Math.min(PROPERTIES_PER_CLASS, propertyCount - start);
+            sources.add(CompiledSources.source(PACKAGE + "." + className, configurationClass(className, classIndex, count)));
+        }
+        return sources;
+    }
+
+    private static String defaultsClass() {
+        return """
+                package %s;
+
+                public final class Defaults {
+                    public static final int TIMEOUT = 30;
+                    public static final String HOST = "localhost";
+                    private Defaults() {
+                    }
+                }
+                """.formatted(PACKAGE);
+    }
+
+    private static String configurationClass(String className, int classIndex, int count) {
+        var outerCount = count - count / 2;
+
+        var code = new StringBuilder();
+        code.append("package ").append(PACKAGE).append(";\n\n")
+                .append("import jakarta.validation.Valid;\n")
+                .append("import jakarta.validation.constraints.*;\n")
+                .append("import org.springframework.boot.context.properties.ConfigurationProperties;\n")
+                .append("import org.springframework.validation.annotation.Validated;\n")
+                .append("import java.time.Duration;\n")
+                .append("import java.util.List;\n\n")
+                .append("/**\n * Synthetic configuration number ").append(classIndex).append(".\n */\n")
+                .append("@Validated\n")
+                .append("@ConfigurationProperties(\"synthetic").append(classIndex).append("\")\n")
+                .append("public class ").append(className).append(" {\n\n");
+
+        appendProperties(code, 0, outerCount, "    ");
+
+        code.append("    /**\n     * Nested group of properties.\n     */\n")
+                .append("    @Valid\n")
+                .append("    private Nested nested = new Nested();\n\n")
+                .append("    public Nested getNested() {\n        return nested;\n    }\n\n")
+                .append("    public void setNested(Nested nested) {\n        this.nested = nested;\n    }\n\n")
+                .append("    public static class Nested {\n\n");
+
+        appendProperties(code, outerCount, count, "        ");
+
+        code.append("    }\n}\n");
+        return code.toString();
+    }
+
+    private static void appendProperties(StringBuilder code, int from, int to, String indent) {
+        for (int i = from; i < to; i++) {
+            var name = "option" + i;
+            var capitalized = "Option" + i;
+            String type;
+            String annotation;
+            String value;
+
+            switch (i % 5) {
+                case 0 -> {
+                    type = "String";
+                    annotation = "@NotBlank";
+                    value = "Defaults.HOST + \":" + i + "\"";
+                }
+                case 1 -> {
+                    type = "int";
+                    annotation = "@Min(1) @Max(65535)";
+                    value = "Defaults.TIMEOUT * " + i + " + 1";
+                }
+                case 2 -> {
+                    type = "Duration";
+                    annotation = "@NotNull";
+                    value = "Duration.ofSeconds(" + i + ")";
+                }
+                case 3 -> {
+                    type = "boolean";
+                    annotation = "";
+                    value = (i % 2 == 0) + "";
+                }
+                default -> {
+                    type = "List<String>";
+                    annotation = "@Size(max = " + i + ")";
+                    value = "List.of(\"a\", \"b\")";
+                }
+            }
+
+            code.append(indent).append("/**\n")
+                    .append(indent).append(" * Synthetic property <b>").append(name).append("</b> used for benchmarking.\n")
+                    .append(indent).append(" * <p>\n")
+                    .append(indent).append(" * Value is described with {@code code}, {@link java.util.List links} and multiple\n")
+                    .append(indent).append(" * lines   with   repeated   spaces.\n")
+                    .append(indent).append(" */\n");
+            if (!annotation.isEmpty()) {
+                code.append(indent).append(annotation).append('\n');
+            }
+            code.append(indent).append("private ").append(type).append(' ').append(name).append(" = ").append(value).append(";\n\n")
+                    .append(indent).append("public ").append(type).append(" get").append(capitalized).append("() {\n")
+                    .append(indent).append("    return ").append(name).append(";\n")
+                    .append(indent).append("}\n\n")
+                    .append(indent).append("public void set").append(capitalized).append('(').append(type).append(' ').append(name).append(") {\n")
+                    .append(indent).append("    this.").append(name).append(" = ").append(name).append(";\n")
+                    .append(indent).append("}\n\n");
+        }
+    }
+}
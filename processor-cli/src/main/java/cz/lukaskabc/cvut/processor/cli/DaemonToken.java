@@ -0,0 +1,95 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Random token authenticating requests of a {@link DocgenDaemon}.
+ * <p>
+ * The token is stored in a file readable only by the owner (in a directory accessible only by the owner),
+ * so only processes of the user running the daemon can send requests to it.
+ */
+final class DaemonToken {
+
+    /**
+     * Directory with token files of running daemons
+     */
+    static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".docgen");
+
+    private static final int TOKEN_BYTES = 32;
+
+    private DaemonToken() {
+    }
+
+    /**
+     * Generates a new token and writes it to the token file of the port
+     *
+     * @return the token
+     */
+    static String create(Path directory, int port) throws IOException {
+        var bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        var token = HexFormat.of().formatHex(bytes);
+
+        createPrivateDirectory(directory);
+        var file = file(directory, port);
+        // the token is written to a new owner-only file and then moved, so it is never readable by others
+        var tempFile = directory.resolve(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tempFile);
+        if (isPosix(directory)) {
+            Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tempFile);
+        }
+        Files.writeString(tempFile, token, StandardCharsets.UTF_8);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        return token;
+    }
+
+    /**
+     * @return token of the daemon running on the port or empty when the token file does not exist
+     */
+    static Optional<String> read(Path directory, int port) throws IOException {
+        try {
+            return Optional.of(Files.readString(file(directory, port), StandardCharsets.UTF_8).strip());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    static void delete(Path directory, int port) throws IOException {
+        Files.deleteIfExists(file(directory, port));
+    }
+
+    /**
+     * Compares the tokens in constant time
+     */
+    static boolean matches(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path file(Path directory, int port) {
+        return directory.resolve("daemon-" + port + ".token");
+    }
+
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        if (isPosix(directory)) {
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+}
@@ -0,0 +1,90 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Sends requests to a running {@link DocgenDaemon}
+ */
+public class DocgenClient {
+
+    private final int port;
+
+    private final Path tokenDirectory;
+
+    public DocgenClient(int port) {
+        this(port, DaemonToken.DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * @param tokenDirectory directory with the token file of the daemon
+     */
+    public DocgenClient(int port, Path tokenDirectory) {
+        this.port = port;
+        this.tokenDirectory = tokenDirectory;
+    }
+
+    /**
+     * Sends the request to the daemon and copies its output
+     *
+     * @param args   request arguments (with absolute paths), see {@link DocumentationRequest#toArguments()}
+     * @param output writer for the daemon output
+     * @return exit code of the request or empty when no daemon is running on the port
+     * (or its token is not available)
+     */
+    public OptionalInt send(List<String> args, PrintWriter output) throws IOException {
+        for (var arg : args) {
+            if (arg.isEmpty() || arg.indexOf('\n') >= 0 || arg.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Arguments for the daemon must not be empty or contain line breaks");
+            }
+        }
+
+        var token = DaemonToken.read(tokenDirectory, port);
+        if (token.isEmpty()) {
+            return OptionalInt.empty();
+        }
+
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        } catch (ConnectException e) {
+            return OptionalInt.empty();
+        }
+
+        try (socket) {
+            var writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+            writer.println(token.get());
+            args.forEach(writer::println);
+            writer.println();
+            writer.flush();
+
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(DocgenDaemon.EXIT_PREFIX)) {
+                    output.flush();
+                    return OptionalInt.of(Integer.parseInt(line.substring(DocgenDaemon.EXIT_PREFIX.length())));
+                }
+                if (line.startsWith(DocgenDaemon.OUTPUT_PREFIX)) {
+                    output.println(line.substring(DocgenDaemon.OUTPUT_PREFIX.length()));
+                }
+            }
+        }
+        throw new IOException("Daemon closed the connection without the exit code");
+    }
+
+    /**
+     * Stops the daemon
+     *
+     * @return true when a daemon was running on the port
+     */
+    public boolean stop() throws IOException {
+        return send(List.of(DocgenDaemon.STOP_REQUEST), new PrintWriter(Writer.nullWriter())).isPresent();
+    }
+}
@@ -0,0 +1,200 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long-lived process executing {@link DocumentationRequest documentation requests} received on a local socket
+ * with a single warm {@link DocumentationCompiler}.
+ * <p>
+ * Protocol (UTF-8 lines): the client sends the daemon token (see {@link DaemonToken})
+ * and request arguments one per line terminated by an empty line, the daemon replies with output lines prefixed with {@value #OUTPUT_PREFIX}
+ * and the final line {@value #EXIT_PREFIX} followed by the exit code.
+ * Request consisting of the single argument {@value #STOP_REQUEST} stops the daemon.
+ * Requests are handled one at a time.
+ * <p>
+ * The daemon listens on the loopback address, requests without the token are rejected,
+ * as the token file is readable only by the user running the daemon.
+ */
+public class DocgenDaemon implements AutoCloseable {
+
+    static final String OUTPUT_PREFIX = "out ";
+
+    static final String EXIT_PREFIX = "exit ";
+
+    static final String STOP_REQUEST = "--stop";
+
+    /**
+     * Time limit for receiving the request, so an unresponsive client does not block other requests
+     */
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+
+    private final ServerSocket serverSocket;
+
+    private final DocumentationCompiler compiler;
+
+    private final Path tokenDirectory;
+
+    private final String token;
+
+    /**
+     * Binds the daemon to the loopback address, the token is written to the {@link DaemonToken#DEFAULT_DIRECTORY}
+     *
+     * @param port port to listen on, 0 for any free port
+     */
+    public DocgenDaemon(int port, DocumentationCompiler compiler) throws IOException {
+        this(port, DaemonToken.DEFAULT_DIRECTORY, compiler);
+    }
+
+    /**
+     * Binds the daemon to the loopback address
+     *
+     * @param port           port to listen on, 0 for any free port
+     * @param tokenDirectory directory for the token file (created accessible only by the owner)
+     */
+    public DocgenDaemon(int port, Path tokenDirectory, DocumentationCompiler compiler) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.compiler = compiler;
+        this.tokenDirectory = tokenDirectory;
+        try {
+            this.token = DaemonToken.create(tokenDirectory, getPort());
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return port the daemon listens on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts and executes requests until the stop request is received or the daemon is closed
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            try (var socket = serverSocket.accept()) {
+                socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                if (!handle(socket)) {
+                    close();
+                }
+            } catch (IOException e) {
+                // the connection with the client failed, there is nobody to report the failure to
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false when the stop request was received
+     */
+    private boolean handle(Socket socket) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        var writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+
+        var requestToken = reader.readLine();
+        var args = readRequest(reader);
+        if (!DaemonToken.matches(token, requestToken)) {
+            writer.println(OUTPUT_PREFIX + "error: invalid daemon token");
+            writer.println(EXIT_PREFIX + 2);
+            writer.flush();
+            return true;
+        }
+        if (args.equals(List.of(STOP_REQUEST))) {
+            writer.println(EXIT_PREFIX + 0);
+            writer.flush();
+            return false;
+        }
+
+        var output = new PrintWriter(new LinePrefixWriter(writer, OUTPUT_PREFIX));
+        int exitCode;
+        try {
+            // paths of the request are already absolute, the working directory is not used
+            var request = DocumentationRequest.parse(args, Path.of("").toAbsolutePath()).requireSources();
+            exitCode = compiler.run(request, output) ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            output.println("error: " + e.getMessage());
+            exitCode = 2;
+        } catch (RuntimeException e) {
+            output.println("error: failed to handle request: " + e);
+            exitCode = 1;
+        }
+        output.flush();
+        writer.println(EXIT_PREFIX + exitCode);
+        writer.flush();
+        return true;
+    }
+
+    private static List<String> readRequest(BufferedReader reader) throws IOException {
+        var args = new ArrayList<String>();
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            args.add(line);
+        }
+        return args;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!serverSocket.isClosed()) {
+            serverSocket.close();
+            DaemonToken.delete(tokenDirectory, getPort());
+        }
+    }
+
+    /**
+     * Writer prefixing every line with the prefix
+     */
+    private static class LinePrefixWriter extends Writer {
+
+        private final Writer writer;
+
+        private final String prefix;
+
+        private boolean lineStart = true;
+
+        private LinePrefixWriter(Writer writer, String prefix) {
+            this.writer = writer;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                var c = buffer[i];
+                if (c == '\r') {
+                    continue;
+                }
+                if (lineStart) {
+                    writer.write(prefix);
+                    lineStart = false;
+                }
+                writer.write(c);
+                if (c == '\n') {
+                    lineStart = true;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point generating documentation without a build tool.
+ * <pre>
+ * docgen [request arguments]                      generates documentation in this process
+ * docgen --daemon [--port &lt;port&gt;]               starts a daemon keeping the compiler warm
+ * docgen --client [--port &lt;port&gt;] [request arguments]
+ *                                                 sends the request to the daemon (or runs it in this process
+ *                                                 when no daemon is running)
+ * docgen --stop [--port &lt;port&gt;]                 stops the daemon
+ * docgen --watch [request arguments]              regenerates documentation when sources change
+ * docgen --merge [request arguments without sources]
+ *                                                 writes documentation from fragments of shards
+ *                                                 (listed in the {@code fragment_files} option)
+ * </pre>
+ * Request arguments are described in {@link DocumentationRequest}.
+ */
+public class DocgenLauncher {
+
+    /**
+     * Port used by the daemon when not specified
+     */
+    public static final int DEFAULT_PORT = 7363;
+
+    private static final String USAGE = """
+            Usage:
+              docgen [request arguments]
+              docgen --daemon [--port <port>]
+              docgen --client [--port <port>] [request arguments]
+              docgen --stop [--port <port>]
+              docgen --watch [request arguments]
+              docgen --merge -Afragment_files=<fragment files> [request arguments without sources]
+            Request arguments:
+              [-cp <classpath>] [-d <class output>] [-processor <additional processors>] [-prefilter]
+              [-A<option>[=<value>]...] <source file or directory>...""";
+
+    private enum Mode {
+        RUN, DAEMON, CLIENT, STOP, WATCH, MERGE
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(List.of(args), new PrintWriter(System.out, true)));
+    }
+
+    /**
+     * @return exit code, 0 on success, 1 when the generation failed and 2 for invalid arguments
+     */
+    public static int run(List<String> args, PrintWriter output) {
+        var mode = Mode.RUN;
+        var port = DEFAULT_PORT;
+        var requestArgs = new ArrayList<String>();
+
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                switch (args.get(i)) {
+                    case "--daemon" -> mode = Mode.DAEMON;
+                    case "--client" -> mode = Mode.CLIENT;
+                    case "--stop" -> mode = Mode.STOP;
+                    case "--watch" -> mode = Mode.WATCH;
+                    case "--merge" -> mode = Mode.MERGE;
+                    case "--port" -> {
+                        if (++i >= args.size()) {
+                            throw new IllegalArgumentException("Missing value of argument --port");
+                        }
+                        port = Integer.parseInt(args.get(i));
+                    }
+                    case "--help", "-h" -> {
+                        output.println(USAGE);
+                        return 0;
+                    }
+                    default -> requestArgs.add(args.get(i));
+                }
+            }
+
+            return switch (mode) {
+                case RUN -> runInProcess(parseRequest(requestArgs).requireSources(), output);
+                case DAEMON -> runDaemon(port, output);
+                case CLIENT -> runClient(port, parseRequest(requestArgs).requireSources(), output);
+                case STOP -> stopDaemon(port, output);
+                case WATCH -> watch(parseRequest(requestArgs).requireSources(), output);
+                case MERGE -> merge(parseRequest(requestArgs), output);
+            };
+        } catch (IllegalArgumentException e) {
+            output.println("error: " + e.getMessage());
+            output.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            output.println("error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static DocumentationRequest parseRequest(List<String> args) {
+        return DocumentationRequest.parse(args, Path.of("").toAbsolutePath());
+    }
+
+    private static int runInProcess(DocumentationRequest request, PrintWriter output) throws IOException {
+        try (var compiler = new DocumentationCompiler()) {
+            return compiler.run(request, output) ? 0 : 1;
+        }
+    }
+
+    private static int runDaemon(int port, PrintWriter output) throws IOException {
+        try (var compiler = new DocumentationCompiler(); var daemon = new DocgenDaemon(port, compiler)) {
+            output.println("Documentation daemon listening on port " + daemon.getPort());
+            daemon.serve();
+        }
+        return 0;
+    }
+
+    private static int runClient(int port, DocumentationRequest request, PrintWriter output) throws IOException {
+        var exitCode = new DocgenClient(port).send(request.toArguments(), output);
+        if (exitCode.isPresent()) {
+            return exitCode.getAsInt();
+        }
+        output.println("note: no documentation daemon is running on port " + port + ", generating in this process");
+        return runInProcess(request, output);
+    }
+
+    private static int watch(DocumentationRequest request, PrintWriter output) throws IOException {
+        try (var compiler = new DocumentationCompiler(); var watcher = new DocumentationWatcher(request, compiler, output)) {
+            output.println("Watching sources for changes, press Ctrl+C to stop");
+            watcher.watch();
+        }
+        return 0;
+    }
+
+    private static int merge(DocumentationRequest request, PrintWriter output) throws IOException {
+        if (!request.sources().isEmpty()) {
+            throw new IllegalArgumentException("Sources are not processed when merging fragments");
+        }
+        try (var compiler = new DocumentationCompiler()) {
+            return compiler.merge(request, output) ? 0 : 1;
+        }
+    }
+
+    private static int stopDaemon(int port, PrintWriter output) throws IOException {
+        if (!new DocgenClient(port).stop()) {
+            output.println("No documentation daemon is running on port " + port);
+        }
+        return 0;
+    }
+}
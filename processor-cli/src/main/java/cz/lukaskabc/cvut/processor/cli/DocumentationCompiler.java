@@ -0,0 +1,205 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import cz.lukaskabc.cvut.processor.ConfigurationDocProcessor;
+import cz.lukaskabc.cvut.processor.fragment.DocumentationFragment;
+
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.tools.Diagnostic;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@link ConfigurationDocProcessor} on sources of a {@link DocumentationRequest}
+ * with the {@link JavaCompiler} API (in the annotation processing only mode).
+ * <p>
+ * The compiler and its file manager are reused for all requests,
+ * so opened classpath archives and loaded classes (including the JIT compiled code) are shared between runs.
+ * Locations of the file manager (class path, source path and class output) are set again for each request.
+ * Requests are executed sequentially as the processor logs through a static {@link cz.lukaskabc.cvut.processor.Log}.
+ */
+public class DocumentationCompiler implements AutoCloseable {
+
+    private final JavaCompiler compiler;
+
+    private final StandardJavaFileManager fileManager;
+
+    public DocumentationCompiler() {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available, run the launcher with JDK instead of JRE");
+        }
+        fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates documentation for the request
+     *
+     * @param request request to execute
+     * @param output  writer for compiler and processor messages
+     * @return true when the compilation (processing) succeeded
+     */
+    public boolean run(DocumentationRequest request, PrintWriter output) {
+        return run(request, request.sourceFiles(), null, output);
+    }
+
+    /**
+     * Generates documentation for the selected sources of the request,
+     * source directories of the request are available to the compiler as the source path
+     *
+     * @param request         request to execute
+     * @param sourceFiles     source files to process
+     * @param sourceFragments snapshots of sources processed in previous runs, null when not used
+     * @param output          writer for compiler and processor messages
+     * @return true when the compilation (processing) succeeded
+     * @see ConfigurationDocProcessor#ConfigurationDocProcessor(Map)
+     */
+    public synchronized boolean run(DocumentationRequest request, List<Path> sourceFiles,
+                                    Map<URI, DocumentationFragment> sourceFragments, PrintWriter output) {
+        var sources = new ArrayList<JavaFileObject>();
+        fileManager.getJavaFileObjectsFromPaths(sourceFiles).forEach(sources::add);
+        return compile(request, sources, new ConfigurationDocProcessor(sourceFragments), output);
+    }
+
+    /**
+     * Generates documentation only from documentation fragments of the request (e.g. written by shards),
+     * no sources are processed
+     *
+     * @param request request with fragment files, without sources
+     * @param output  writer for compiler and processor messages
+     * @return true when the compilation (processing) succeeded
+     */
+    public synchronized boolean merge(DocumentationRequest request, PrintWriter output) {
+        // javac requires at least one source, the processor is invoked even without annotations present
+        var placeholder = new SimpleJavaFileObject(URI.create("string:///DocgenMerge.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "class DocgenMerge {}";
+            }
+        };
+        return compile(request, List.of(placeholder), new MergingProcessor(), output);
+    }
+
+    private boolean compile(DocumentationRequest request, List<JavaFileObject> sources, Processor documentationProcessor, PrintWriter output) {
+        var processors = new ArrayList<Processor>();
+        processors.add(documentationProcessor);
+        try {
+            for (var processor : request.processors()) {
+                processors.add((Processor) Class.forName(processor).getDeclaredConstructor().newInstance());
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            output.println("error: failed to create annotation processor: " + e);
+            output.flush();
+            return false;
+        }
+
+        var options = new ArrayList<String>();
+        options.add("-proc:only");
+        options.add("-implicit:none");
+        options.add("-encoding");
+        options.add(StandardCharsets.UTF_8.name());
+        request.processorOptions().forEach(option -> options.add("-A" + option));
+
+        try {
+            setLocations(request);
+        } catch (IOException e) {
+            output.println("error: " + e.getMessage());
+            output.flush();
+            return false;
+        }
+
+        var task = compiler.getTask(output, fileManager, diagnostic -> printDiagnostic(diagnostic, output), options, null, sources);
+        task.setProcessors(processors);
+
+        boolean success;
+        try {
+            success = task.call();
+        } catch (RuntimeException e) {
+            output.println("error: " + e.getMessage());
+            success = false;
+        }
+        output.flush();
+        return success;
+    }
+
+    /**
+     * Sets all locations of the shared file manager, so locations of a previous request are never used
+     * (the default location is used when the request does not specify it)
+     */
+    private void setLocations(DocumentationRequest request) throws IOException {
+        var sourcePath = request.sources().stream().filter(Files::isDirectory).toList();
+        setLocation(StandardLocation.SOURCE_PATH, sourcePath);
+
+        var classPath = Arrays.stream(request.classpath().split(File.pathSeparator))
+                .filter(entry -> !entry.isEmpty())
+                .map(Path::of)
+                .toList();
+        setLocation(StandardLocation.CLASS_PATH, classPath);
+
+        if (request.classOutput() != null) {
+            Files.createDirectories(request.classOutput());
+        }
+        setLocation(StandardLocation.CLASS_OUTPUT, request.classOutput() == null ? List.of() : List.of(request.classOutput()));
+    }
+
+    /**
+     * @param paths paths of the location, the default location is used when empty
+     */
+    private void setLocation(StandardLocation location, List<Path> paths) throws IOException {
+        if (paths.isEmpty()) {
+            fileManager.setLocation(location, null);
+        } else {
+            fileManager.setLocationFromPaths(location, paths);
+        }
+    }
+
+    private static void printDiagnostic(Diagnostic<? extends JavaFileObject> diagnostic, PrintWriter output) {
+        var kind = switch (diagnostic.getKind()) {
+            case ERROR -> "error";
+            case WARNING, MANDATORY_WARNING -> "warning";
+            default -> "note";
+        };
+        if (diagnostic.getSource() != null) {
+            output.println(diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + ": " + kind + ": " + diagnostic.getMessage(Locale.ROOT));
+        } else {
+            output.println(kind + ": " + diagnostic.getMessage(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileManager.close();
+    }
+
+    /**
+     * Documentation processor invoked also when no annotations are present in the sources,
+     * so the documentation can be written only from the aggregated fragments
+     */
+    @SupportedAnnotationTypes("*")
+    private static class MergingProcessor extends ConfigurationDocProcessor {
+
+        @Override
+        public Set<String> getSupportedOptions() {
+            // annotations are not inherited
+            return Set.of(ConfigurationDocProcessor.class.getAnnotation(SupportedOptions.class).value());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static cz.lukaskabc.cvut.processor.ProcessorConfiguration.DEFAULT_OUTPUT_FILE;
+import static cz.lukaskabc.cvut.processor.ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX;
+
+/**
+ * Single documentation generation request with all paths resolved to absolute paths,
+ * so the request can be executed by a daemon running in a different working directory.
+ * <pre>
+ * [-cp &lt;classpath&gt;] [-d &lt;class output&gt;] [-processor &lt;additional processors&gt;] [-prefilter]
+ * [-A&lt;option&gt;[=&lt;value&gt;]...] &lt;source file or directory&gt;...
+ * </pre>
+ *
+ * @param sources          source files or directories (searched recursively for Java files)
+ * @param classpath        compilation classpath, empty when not specified
+ * @param classOutput      directory for generated resources (fragments, metadata),
+ *                         the working directory of the request when not specified (same as with javac)
+ * @param processors       qualified names of additional annotation processors (e.g. Lombok)
+ * @param prefilter        whether sources found in directories are processed only when they contain
+ *                         a configuration annotation (see {@link SourcePrefilter})
+ * @param processorOptions options for the documentation processor with the {@code configurationdoc.} prefix
+ *                         in the {@code name[=value]} form
+ */
+public record DocumentationRequest(List<Path> sources,
+                                   String classpath,
+                                   Path classOutput,
+                                   List<String> processors,
+                                   boolean prefilter,
+                                   List<String> processorOptions) {
+
+    /**
+     * Processor options with a file path as a value
+     */
+    private static final Set<String> PATH_OPTIONS = Set.of("output_file", "template", "cache_file", "stats_file");
+
+    /**
+     * Processor options with a list of file paths (separated with the path separator) as a value
+     */
+    private static final Set<String> PATH_LIST_OPTIONS = Set.of("fragment_files");
+
+    public DocumentationRequest {
+        sources = List.copyOf(sources);
+        processors = List.copyOf(processors);
+        processorOptions = List.copyOf(processorOptions);
+    }
+
+    /**
+     * Parses command line arguments of the request
+     *
+     * @param args             arguments without launcher options
+     * @param workingDirectory directory against which relative paths are resolved
+     * @throws IllegalArgumentException when the arguments are not valid
+     */
+    public static DocumentationRequest parse(List<String> args, Path workingDirectory) {
+        var sources = new ArrayList<Path>();
+        var classpath = new ArrayList<String>();
+        var classOutput = workingDirectory;
+        var processors = new ArrayList<String>();
+        var prefilter = false;
+        var options = new ArrayList<String>();
+        var hasOutputFile = false;
+        var markdown = false;
+
+        for (int i = 0; i < args.size(); i++) {
+            var arg = args.get(i);
+            switch (arg) {
+                case "-cp", "-classpath", "--class-path" -> {
+                    for (var entry : requireValue(args, ++i, arg).split(File.pathSeparator)) {
+                        if (!entry.isEmpty()) {
+                            classpath.add(workingDirectory.resolve(entry).toString());
+                        }
+                    }
+                }
+                case "-d" -> classOutput = workingDirectory.resolve(requireValue(args, ++i, arg));
+                case "-processor" -> processors.addAll(Arrays.asList(requireValue(args, ++i, arg).split(",")));
+                case "-prefilter" -> prefilter = true;
+                default -> {
+                    if (arg.startsWith("-A")) {
+                        var option = processorOption(arg.substring(2), workingDirectory);
+                        hasOutputFile |= option.startsWith(PROCESSOR_CONFIGURATION_PREFIX + "output_file=");
+                        if (option.startsWith(PROCESSOR_CONFIGURATION_PREFIX + "format=")) {
+                            markdown = isMarkdown(option.substring(option.indexOf('=') + 1));
+                        }
+                        options.add(option);
+                    } else if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown argument: " + arg);
+                    } else {
+                        sources.add(workingDirectory.resolve(arg).normalize());
+                    }
+                }
+            }
+        }
+
+        if (!hasOutputFile) {
+            // the default output file of the processor would be resolved against the working directory of the daemon
+            var outputFile = DEFAULT_OUTPUT_FILE + (markdown ? ".md" : ".html");
+            options.add(PROCESSOR_CONFIGURATION_PREFIX + "output_file=" + workingDirectory.resolve(outputFile));
+        }
+
+        return new DocumentationRequest(sources, String.join(File.pathSeparator, classpath), classOutput, processors, prefilter, options);
+    }
+
+    /**
+     * @return true when the value of the format option selects Markdown
+     * @see cz.lukaskabc.cvut.processor.ProcessorConfiguration
+     */
+    private static boolean isMarkdown(String format) {
+        var normalized = format.toUpperCase(Locale.ROOT).replaceAll("[\\s_-]+", "");
+        return normalized.equals("MD") || normalized.equals("MARKDOWN");
+    }
+
+    private static String requireValue(List<String> args, int index, String arg) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("Missing value of argument " + arg);
+        }
+        return args.get(index);
+    }
+
+    /**
+     * @param option option in the {@code name[=value]} form, the {@code configurationdoc.} prefix is optional
+     * @return option with the prefix and with path values resolved against the working directory
+     */
+    private static String processorOption(String option, Path workingDirectory) {
+        if (!option.startsWith(PROCESSOR_CONFIGURATION_PREFIX)) {
+            option = PROCESSOR_CONFIGURATION_PREFIX + option;
+        }
+
+        var separator = option.indexOf('=');
+        if (separator < 0) {
+            return option;
+        }
+        var name = option.substring(PROCESSOR_CONFIGURATION_PREFIX.length(), separator);
+        var value = option.substring(separator + 1);
+        if (PATH_OPTIONS.contains(name) && !value.isEmpty()) {
+            value = workingDirectory.resolve(value).toString();
+        } else if (PATH_LIST_OPTIONS.contains(name)) {
+            value = Arrays.stream(value.split(File.pathSeparator))
+                    .filter(path -> !path.isEmpty())
+                    .map(path -> workingDirectory.resolve(path).toString())
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+        return option.substring(0, separator + 1) + value;
+    }
+
+    /**
+     * @return this request
+     * @throws IllegalArgumentException when the request does not contain any source
+     */
+    public DocumentationRequest requireSources() {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No source files or directories specified");
+        }
+        return this;
+    }
+
+    /**
+     * @return arguments which are parsed into an equal request (regardless of the working directory)
+     */
+    public List<String> toArguments() {
+        var args = new ArrayList<String>();
+        if (!classpath.isEmpty()) {
+            args.add("-cp");
+            args.add(classpath);
+        }
+        if (classOutput != null) {
+            args.add("-d");
+            args.add(classOutput.toString());
+        }
+        if (!processors.isEmpty()) {
+            args.add("-processor");
+            args.add(String.join(",", processors));
+        }
+        if (prefilter) {
+            args.add("-prefilter");
+        }
+        processorOptions.forEach(option -> args.add("-A" + option));
+        sources.forEach(source -> args.add(source.toString()));
+        return args;
+    }
+
+    /**
+     * @return Java source files from {@link #sources}, directories are searched recursively
+     * (and their sources are filtered when {@link #prefilter} is enabled)
+     */
+    public List<Path> sourceFiles() {
+        var files = new ArrayList<Path>();
+        for (var source : sources) {
+            if (!Files.isDirectory(source)) {
+                files.add(source);
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(source)) {
+                var directoryFiles = walk.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+                        .sorted()
+                        .toList();
+                files.addAll(prefilter ? SourcePrefilter.filter(directoryFiles) : directoryFiles);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,168 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import cz.lukaskabc.cvut.processor.ConfigurationDocProcessor;
+import cz.lukaskabc.cvut.processor.fragment.DocumentationFragment;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Regenerates documentation whenever a Java source in the source directories of the request changes.
+ * <p>
+ * All sources are processed on start, then only changed sources are compiled
+ * (other sources are available through the source path) and snapshots of unchanged sources are kept in memory,
+ * see {@link ConfigurationDocProcessor#ConfigurationDocProcessor(Map)}.
+ * The whole output is written again after each change.
+ * <p>
+ * Options of a class nesting a type declared in another source file are refreshed
+ * when the source of the class changes, not when only the nested type changes.
+ */
+public class DocumentationWatcher implements AutoCloseable {
+
+    /**
+     * Time without further changes after which the changed sources are processed,
+     * editors usually produce several events for a single save
+     */
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final DocumentationRequest request;
+
+    private final DocumentationCompiler compiler;
+
+    private final PrintWriter output;
+
+    private final WatchService watchService;
+
+    /**
+     * Snapshots of processed sources by the source file
+     */
+    private final Map<URI, DocumentationFragment> sourceFragments = new LinkedHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException when the request does not contain any source directory
+     */
+    public DocumentationWatcher(DocumentationRequest request, DocumentationCompiler compiler, PrintWriter output) throws IOException {
+        this.request = request;
+        this.compiler = compiler;
+        this.output = output;
+
+        var directories = request.sources().stream().filter(Files::isDirectory).toList();
+        if (directories.isEmpty()) {
+            throw new IllegalArgumentException("Watch mode requires at least one source directory");
+        }
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (var directory : directories) {
+            registerTree(directory);
+        }
+    }
+
+    /**
+     * Processes all sources and then processes changed sources until the watcher is closed
+     */
+    public void watch() throws IOException {
+        generate(request.sourceFiles());
+
+        try {
+            while (true) {
+                var changed = new LinkedHashSet<Path>();
+                collectChanges(watchService.take(), changed);
+                // wait until the changes settle down
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changed);
+                }
+                processChanges(changed);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // watching was stopped
+        }
+    }
+
+    /**
+     * Adds changed Java sources from the key events and registers new directories
+     */
+    private void collectChanges(WatchKey key, Set<Path> changed) throws IOException {
+        var directory = (Path) key.watchable();
+        for (var event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // changes were lost, process all sources again
+                changed.addAll(request.sourceFiles());
+                sourceFragments.clear();
+                continue;
+            }
+
+            var path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                registerTree(path);
+                try (var files = Files.walk(path)) {
+                    files.filter(DocumentationWatcher::isJavaSource).forEach(changed::add);
+                }
+            } else if (path.toString().endsWith(".java")) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void processChanges(Set<Path> changed) {
+        var sources = new ArrayList<Path>();
+        for (var path : changed) {
+            sourceFragments.remove(path.toUri());
+            if (isJavaSource(path) && (!request.prefilter() || SourcePrefilter.mayDeclareConfiguration(path))) {
+                sources.add(path);
+            }
+        }
+
+        if (sources.isEmpty()) {
+            // only deleted (or filtered) sources, the documentation is written again with any remaining source
+            var remaining = sourceFragments.keySet().stream().findFirst();
+            if (remaining.isEmpty()) {
+                output.println("note: no configuration sources left to document");
+                output.flush();
+                return;
+            }
+            sources.add(Path.of(remaining.get()));
+        }
+
+        output.println("note: processing " + sources.size() + " changed source(s)");
+        generate(sources);
+    }
+
+    private void generate(List<Path> sources) {
+        var start = System.nanoTime();
+        var success = compiler.run(request, sources, sourceFragments, output);
+        var millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        output.println((success ? "note: documentation generated in " : "error: documentation generation failed after ") + millis + " ms");
+        output.flush();
+    }
+
+    private void registerTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isJavaSource(Path path) {
+        return path.toString().endsWith(".java") && Files.isRegularFile(path);
+    }
+
+    /**
+     * Stops watching, the running {@link #watch()} returns after the current generation
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,54 @@
+package cz.lukaskabc.cvut.processor.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Quick textual scan of source files selecting only sources which may declare configuration options,
+ * so unrelated sources of large source sets are not parsed and attributed by the compiler.
+ * <p>
+ * A source is selected when it contains a {@code @ConfigurationProperties} or {@code @Value} annotation token
+ * (with a simple or qualified name). Other sources remain available to the compiler through the source path
+ * and are parsed only when they are referenced (e.g. nested configuration types or constants of default values).
+ * The scan may select more sources than necessary (e.g. tokens in comments), but never fewer,
+ * as the processor documents only elements directly annotated with one of the annotations.
+ */
+public final class SourcePrefilter {
+
+    private static final Pattern ANNOTATION_TOKEN = Pattern.compile(
+            "@\\s*(?:[\\w$]+\\s*\\.\\s*)*(?:ConfigurationProperties|Value)\\b");
+
+    private SourcePrefilter() {
+    }
+
+    /**
+     * @return sources which may contain configuration annotations, in the original order
+     */
+    public static List<Path> filter(List<Path> sources) {
+        return sources.parallelStream()
+                .filter(SourcePrefilter::mayDeclareConfiguration)
+                .toList();
+    }
+
+    /**
+     * @return true when the source contains a configuration annotation token or when it could not be read
+     * (the compiler reports the error then)
+     */
+    public static boolean mayDeclareConfiguration(Path source) {
+        String content;
+        try {
+            content = Files.readString(source, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return true;
+        }
+        // cheap check before the pattern
+        if (!content.contains("ConfigurationProperties") && !content.contains("Value")) {
+            return false;
+        }
+        return ANNOTATION_TOKEN.matcher(content).find();
+    }
+}
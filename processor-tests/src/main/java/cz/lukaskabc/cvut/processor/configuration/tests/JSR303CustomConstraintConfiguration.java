@@ -0,0 +1,19 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties
+public class JSR303CustomConstraintConfiguration {
+    /**
+     * Port of the server
+     */
+    @PortNumber
+    int port;
+
+    @NotNull
+    @PortNumber
+    Integer adminPort;
+}
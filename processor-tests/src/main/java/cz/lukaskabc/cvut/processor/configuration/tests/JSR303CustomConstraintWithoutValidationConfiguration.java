@@ -0,0 +1,14 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties
+public class JSR303CustomConstraintWithoutValidationConfiguration {
+    /**
+     * Port of the server
+     */
+    @PortNumber
+    int port;
+}
@@ -0,0 +1,41 @@
+package cz.lukaskabc.cvut.processor.configuration.tests.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueConstSource.BYTE_CONSTANT;
+
+@Data
+@ConfigurationProperties(prefix = "expression")
+public class DefaultValueExpressionConfiguration {
+    private static final String HOST = "localhost";
+    private static final int PORT = 8080;
+    private static final Integer BOXED_TIMEOUT = 30;
+    private static final boolean SECURED = true;
+    private static final long KILOBYTE = 1 << 10;
+
+    String url = "http://" + HOST + ":" + PORT + "/";
+    String protocol = SECURED ? "https" : "http";
+    Mode mode = !SECURED ? Mode.PLAIN : Mode.TLS;
+    int adminPort = PORT + 1;
+    int negative = -(PORT - 80);
+    long bufferSize = 4 * KILOBYTE;
+    double ratio = (double) 1 / 4;
+    int shiftedByte = BYTE_CONSTANT << 3;
+    int maxInteger = Integer.MAX_VALUE;
+    String character = "char " + 'c';
+    boolean enabled = PORT > 1024 && SECURED;
+    Duration timeout = Duration.ofSeconds(BOXED_TIMEOUT * 2);
+    Duration shortTimeout = Duration.ofMillis(500);
+    DataSize maxFileSize = DataSize.ofMegabytes(10);
+    String unresolved = HOST + System.lineSeparator();
+    boolean nanGreater = Double.NaN > 1;
+    boolean nanNotEqual = Float.NaN != Float.NaN;
+    boolean negativeZeroLess = -0.0 < 0.0;
+    boolean negativeZeroEqual = -0.0f == 0.0f;
+
+    public enum Mode {PLAIN, TLS}
+}
@@ -0,0 +1,27 @@
+package cz.lukaskabc.cvut.processor.configuration.tests.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties
+public class DefaultValueShadowingConfiguration {
+    private static final int TIMEOUT = 10;
+
+    /**
+     * Resolves to the constant from this class, not from the nested class
+     */
+    int outerTimeout = TIMEOUT;
+
+    InnerClass innerClass = new InnerClass();
+
+    @Data
+    public static class InnerClass {
+        private static final int TIMEOUT = 20;
+
+        /**
+         * Constant of the inner class shadows the constant of the outer class
+         */
+        int innerTimeout = TIMEOUT;
+    }
+}
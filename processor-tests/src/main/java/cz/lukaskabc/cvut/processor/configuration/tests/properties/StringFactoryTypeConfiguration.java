@@ -0,0 +1,31 @@
+package cz.lukaskabc.cvut.processor.configuration.tests.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "factory")
+public class StringFactoryTypeConfiguration {
+    /**
+     * Minimal supported version
+     */
+    Version minimalVersion;
+
+    /**
+     * Spring converts this type from String using its factory method,
+     * so it is documented as single option and its attributes are not visited
+     */
+    @Data
+    public static class Version {
+        private int major;
+        private int minor;
+
+        public static Version of(String value) {
+            var parts = value.split("\\.");
+            var version = new Version();
+            version.setMajor(Integer.parseInt(parts[0]));
+            version.setMinor(Integer.parseInt(parts[1]));
+            return version;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueExternalStaticConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.order.OrderConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheTest extends AbstractProcessorTest {
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    private String cacheFileName() {
+        return getFileName() + ".cache";
+    }
+
+    private boolean hasCacheStatistics(TransparentDiagnosticCollector logs, String statistics) {
+        return logs.getDiagnostics().stream().map(m -> m.getMessage(null)).anyMatch(("Cache: " + statistics)::equals);
+    }
+
+    private List<String> warnings(TransparentDiagnosticCollector logs) {
+        return logs.getDiagnostics().stream()
+                .filter(m -> m.getKind() == Diagnostic.Kind.WARNING)
+                .map(m -> m.getMessage(null))
+                .filter(m -> m.contains("@Validated"))
+                .toList();
+    }
+
+    @AfterEach
+    public void deleteCacheFile() {
+        new File(cacheFileName()).delete();
+    }
+
+    @Test
+    void Cached_classes_produce_same_output() {
+        var fileName = InnerClassConfiguration.class.getSimpleName();
+        var files = List.of(fileName);
+
+        var logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "0 hits, 1 misses"));
+        validateFiles(fileName, "md");
+
+        logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "1 hits, 0 misses"));
+        validateFiles(fileName, "md");
+    }
+
+    @Test
+    void Cache_created_with_different_configuration_is_ignored() {
+        var fileName = DefaultValueExternalStaticConfiguration.class.getSimpleName();
+        var files = List.of(fileName);
+
+        compileWithProcessor(files, "html", "cache_file=" + cacheFileName());
+
+        var logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "0 hits, 1 misses"));
+        validateFiles(fileName, "md");
+    }
+
+    @Test
+    void Classes_with_defaults_from_classpath_are_cached() {
+        var fileName = DefaultValueExternalStaticConfiguration.class.getSimpleName();
+        var files = List.of(fileName);
+
+        var logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "0 hits, 1 misses"));
+
+        // class files of the constants are tracked and unchanged
+        logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "1 hits, 0 misses"));
+        validateFiles(fileName, "md");
+    }
+
+    @Test
+    void Warnings_of_cached_classes_are_reported_again() {
+        var files = List.of("order/" + OrderConfiguration.class.getSimpleName());
+
+        var logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "0 hits, 1 misses"));
+        var warnings = warnings(logs);
+        assertFalse(warnings.isEmpty());
+
+        logs = compileWithProcessor(files, "md", "cache_file=" + cacheFileName());
+        assertTrue(hasCacheStatistics(logs, "1 hits, 0 misses"));
+        assertEquals(warnings, warnings(logs));
+    }
+}
@@ -0,0 +1,78 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.docsgenerator.CommentIndex;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the comment index with the original detection of comments already present in the description
+ * (whitespace and {@code <br>} removed with a regular expression and the whole description lower cased)
+ */
+class CommentIndexTest {
+
+    private static final List<String> SAMPLES = List.of(
+            "",
+            " ",
+            "<br>",
+            "Text",
+            "TEXT with\tbreak<br>\nand line",
+            "text with break and line",
+            "x",
+            // Greek final sigma depends on the following letter
+            "\u039F\u0394\u039F\u03A3",
+            "\u03A3",
+            "\u03A3\u0391",
+            "\u03C3\u03B1",
+            "\u03C2",
+            "\u03BF\u03B4\u03BF\u03C2",
+            // dotted and dotless i of Turkish and Azerbaijani, combining dot above of Lithuanian
+            "I",
+            "\u0130",
+            "\u0131",
+            "i",
+            "\u0307",
+            "\u0307x",
+            "i\u0307x",
+            "I\u0300");
+
+    /**
+     * Original implementation, paragraphs between comments contain only whitespace and {@code <br>} tags
+     */
+    private static boolean originalContains(List<String> comments, String comment) {
+        var description = String.join("<br>\n", comments);
+        return description.replaceAll("\\s|(<br>)", "").toLowerCase().contains(comment.replaceAll("\\s|(<br>)", "").toLowerCase());
+    }
+
+    private static void assertSameAsOriginal(List<String> comments) {
+        var index = new CommentIndex();
+        comments.forEach(index::add);
+        for (var sample : SAMPLES) {
+            assertEquals(originalContains(comments, sample), index.contains(sample),
+                    () -> "Comments " + comments + " containing " + sample);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"en", "tr", "az", "lt", "el"})
+    void Index_matches_original_detection(String language) {
+        var defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag(language));
+        try {
+            assertSameAsOriginal(List.of());
+            for (var first : SAMPLES) {
+                assertSameAsOriginal(List.of(first));
+                for (var second : SAMPLES) {
+                    assertSameAsOriginal(List.of(first, second));
+                }
+            }
+            assertSameAsOriginal(SAMPLES);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -41,6 +41,11 @@ class ConfigurationPropertiesAnnotationTest extends AbstractProcessorTest {
         testFile(DataTypesConfiguration.class.getSimpleName(), "html", 27);
     }
 
+    @Test
+    void Type_with_String_factory_method_is_recognized_as_convertible() {
+        testFile(StringFactoryTypeConfiguration.class.getSimpleName(), "html", 1);
+    }
+
     @Test
     void External_class_used_as_data_type() {
         var files = List.of(ExternalClassAttributeConfiguration.class.getSimpleName(), ExternalClass.class.getSimpleName());
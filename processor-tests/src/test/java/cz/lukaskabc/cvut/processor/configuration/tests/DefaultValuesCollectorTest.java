@@ -2,10 +2,15 @@ package cz.lukaskabc.cvut.processor.configuration.tests;
 
 import cz.lukaskabc.cvut.processor.configuration.tests.properties.ConstructorBindingWithDefaultConfiguration;
 import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueConstSource;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueExpressionConfiguration;
 import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueExternalStaticConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueShadowingConfiguration;
 import cz.lukaskabc.cvut.processor.configuration.tests.properties.JavadocDefaultValueTagConfiguration;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 class DefaultValuesCollectorTest extends AbstractProcessorTest {
     @Override
     protected String getFolderName() {
@@ -27,6 +32,29 @@ class DefaultValuesCollectorTest extends AbstractProcessorTest {
         testFile(DefaultValueExternalStaticConfiguration.class.getSimpleName(), "md", 13);
     }
 
+    @Test
+    void default_values_from_compiled_external_class_without_class_loading() {
+        documentFile(DefaultValueExternalStaticConfiguration.class.getSimpleName(), "md", 13, "no_class_loading");
+        validateFiles(DefaultValueExternalStaticConfiguration.class.getSimpleName() + "-no-class-loading", "md");
+    }
+
+    @Test
+    void default_values_from_external_class_sources() {
+        var files = List.of(DefaultValueExternalStaticConfiguration.class.getSimpleName(), DefaultValueConstSource.class.getSimpleName());
+        documentFiles(files, "md", 13, "no_class_loading");
+        validateFiles(DefaultValueExternalStaticConfiguration.class.getSimpleName() + "-sources", "md");
+    }
+
+    @Test
+    void constant_expressions_are_evaluated() {
+        testFile(DefaultValueExpressionConfiguration.class.getSimpleName(), "md", 19);
+    }
+
+    @Test
+    void default_values_respect_constant_shadowing() {
+        testFile(DefaultValueShadowingConfiguration.class.getSimpleName(), "md", 2);
+    }
+
     @Test
     void javadoc_default_value_tag() {
         testFile(JavadocDefaultValueTagConfiguration.class.getSimpleName(), "md", 3);
@@ -0,0 +1,114 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.formatter.Formatter;
+import cz.lukaskabc.cvut.processor.formatter.HTMLFormatter;
+import cz.lukaskabc.cvut.processor.formatter.MDFormatter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares whitespace normalization of formatters with the original regular expression implementation
+ */
+class FormatterTest {
+
+    private static final List<String> SAMPLES = List.of(
+            "",
+            " ",
+            "text",
+            "  leading and trailing  ",
+            "multiple   spaces   inside",
+            "line\nbreak",
+            "double\n\nline break",
+            "space \n before line break",
+            "tab\t\tand\r\nwindows line break",
+            "<br>",
+            "single<br>break",
+            "double<br><br>break",
+            "spaced <br> \n <br>\t<br>  break",
+            "<br><br>leading breaks",
+            "trailing breaks<br> <br>\n",
+            "broken <br <br> tag",
+            "<br<br><br>",
+            "text before unicode line terminator \u2028",
+            "text<br> \u0085",
+            "\u2029 <br> text",
+            "\n <br>text<br>\n\n<br>"
+    );
+
+    /**
+     * Fragments used for generating random texts
+     */
+    private static final List<String> FRAGMENTS = List.of(" ", "  ", "\n", "\t", "\r", "\u000B", "\f", "<br>", "<br", "br>",
+            "<", "a", "text", "\u0085", "\u2028", "\u00A0");
+
+    static Stream<Arguments> formatters() {
+        return Stream.of(
+                Arguments.of("HTML", new HTMLFormatter()),
+                Arguments.of("MD", new MDFormatter(false)),
+                Arguments.of("MD without HTML", new MDFormatter(true))
+        );
+    }
+
+    private static List<String> inputs() {
+        var inputs = new ArrayList<>(SAMPLES);
+        var random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            var text = new StringBuilder();
+            var length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                text.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+            }
+            inputs.add(text.toString());
+        }
+        return inputs;
+    }
+
+    private static String regexRemoveDoubleSpaces(Formatter formatter, String text) {
+        return text.replaceAll(" {2,}", " ")
+                .replaceAll("\\s{2,}", formatter.eol())
+                .replaceAll("((\\s*)<br>(\\s*)){2,}", formatter.linebreak())
+                .replaceAll("(<br>|\\s)++$", "");
+    }
+
+    private static String regexRemoveLeadingSpacesAndLineBreaks(String text) {
+        return text.replaceAll("^(<br>|\\s)++", "");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("formatters")
+    void Double_spaces_removal_matches_regex_implementation(String name, Formatter formatter) {
+        for (var input : inputs()) {
+            assertEquals(regexRemoveDoubleSpaces(formatter, input), formatter.removeDoubleSpaces(input),
+                    () -> "Input: " + escape(input));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("formatters")
+    void Leading_spaces_removal_matches_regex_implementation(String name, Formatter formatter) {
+        for (var input : inputs()) {
+            assertEquals(regexRemoveLeadingSpacesAndLineBreaks(input), formatter.removeLeadingSpacesAndLineBreaks(input),
+                    () -> "Input: " + escape(input));
+        }
+    }
+
+    private static String escape(String text) {
+        var result = new StringBuilder("\"");
+        text.chars().forEach(c -> {
+            if (c < 0x20 || c > 0x7E) {
+                result.append(String.format("\\u%04X", c));
+            } else {
+                result.append((char) c);
+            }
+        });
+        return result.append('"').toString();
+    }
+}
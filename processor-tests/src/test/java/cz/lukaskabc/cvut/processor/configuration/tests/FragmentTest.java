@@ -0,0 +1,92 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.RecordDirectProperties;
+import cz.lukaskabc.cvut.processor.fragment.DocumentationFragment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentTest extends AbstractProcessorTest {
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    /**
+     * Fragment copied to the test classpath (which is visible to the processor class loader)
+     */
+    private Path classpathFragment() throws URISyntaxException {
+        var testClasses = Path.of(FragmentTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return testClasses.resolve(DocumentationFragment.RESOURCE_NAME);
+    }
+
+    @AfterEach
+    public void deleteClasspathFragment() throws IOException, URISyntaxException {
+        Files.deleteIfExists(classpathFragment());
+    }
+
+    /**
+     * Compiles the inner class configuration as a separate module with fragment enabled
+     * and publishes its fragment on the classpath
+     *
+     * @return number of documented options in the module
+     */
+    private int publishModuleFragment(String format) throws IOException, URISyntaxException {
+        var logs = compileWithProcessor(List.of(InnerClassConfiguration.class.getSimpleName()), format, "fragment");
+        var fragment = Path.of("target/tests/classes", DocumentationFragment.RESOURCE_NAME);
+        assertTrue(Files.isRegularFile(fragment));
+
+        Files.createDirectories(classpathFragment().getParent());
+        Files.copy(fragment, classpathFragment());
+        return InTotalDocumented(logs);
+    }
+
+    @Test
+    void Fragments_from_classpath_are_aggregated() throws IOException, URISyntaxException {
+        var moduleOptions = publishModuleFragment("md");
+        var ownOptions = InTotalDocumented(compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md"));
+
+        var logs = compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md", "aggregate");
+        assertEquals(moduleOptions + ownOptions, InTotalDocumented(logs));
+
+        var output = Files.readString(Path.of(getFileName() + ".md"));
+        var moduleOutput = Files.readAllLines(Path.of(getClass().getResource(
+                "/configuration_tests_expected_outputs/md/properties/" + InnerClassConfiguration.class.getSimpleName() + ".md").toURI()));
+        for (var line : moduleOutput) {
+            if (line.startsWith("|") && !line.startsWith("| ---") && !line.startsWith("| Variable")) {
+                assertTrue(output.contains(line), () -> "Missing aggregated line: " + line);
+            }
+        }
+    }
+
+    @Test
+    void Fragments_with_different_configuration_are_ignored() throws IOException, URISyntaxException {
+        publishModuleFragment("html");
+        var ownOptions = InTotalDocumented(compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md"));
+
+        var logs = compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md", "aggregate");
+        assertEquals(ownOptions, InTotalDocumented(logs));
+    }
+
+    @Test
+    void Fragments_with_serialized_objects_are_ignored() throws IOException, URISyntaxException {
+        Files.createDirectories(classpathFragment().getParent());
+        try (var output = new ObjectOutputStream(Files.newOutputStream(classpathFragment()))) {
+            output.writeObject(List.of("not a fragment"));
+        }
+        var ownOptions = InTotalDocumented(compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md"));
+
+        var logs = compileWithProcessor(List.of(RecordDirectProperties.class.getSimpleName()), "md", "aggregate");
+        assertEquals(ownOptions, InTotalDocumented(logs));
+    }
+}
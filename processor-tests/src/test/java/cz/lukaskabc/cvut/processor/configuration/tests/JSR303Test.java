@@ -2,6 +2,11 @@ package cz.lukaskabc.cvut.processor.configuration.tests;
 
 import org.junit.jupiter.api.Test;
 
+import javax.tools.Diagnostic;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 class JSR303Test extends AbstractProcessorTest {
 
     @Test
@@ -30,4 +35,17 @@ class JSR303Test extends AbstractProcessorTest {
         documentFile(JSR303AllConstraintsConfiguration.class.getSimpleName(), "md", 44, "no_html");
         validateFiles(JSR303AllConstraintsConfiguration.class.getSimpleName() + "-no-html", "md");
     }
+
+    @Test
+    void Custom_constraint_documented_by_provided_generator() {
+        testFile(JSR303CustomConstraintConfiguration.class.getSimpleName(), "html", 2);
+    }
+
+    @Test
+    void Custom_constraint_without_validation_is_reported() {
+        var logs = compileWithProcessor(List.of(JSR303CustomConstraintWithoutValidationConfiguration.class.getSimpleName()), "html");
+        assertTrue(logs.getDiagnostics().stream()
+                .filter(m -> m.getKind() == Diagnostic.Kind.WARNING)
+                .anyMatch(m -> m.getMessage(null).startsWith("Element is missing @Validated annotation")));
+    }
 }
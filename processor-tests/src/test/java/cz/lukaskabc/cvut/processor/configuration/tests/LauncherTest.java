@@ -0,0 +1,300 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.cli.DocgenClient;
+import cz.lukaskabc.cvut.processor.cli.DocgenDaemon;
+import cz.lukaskabc.cvut.processor.cli.DocgenLauncher;
+import cz.lukaskabc.cvut.processor.cli.DocumentationCompiler;
+import cz.lukaskabc.cvut.processor.cli.DocumentationRequest;
+import cz.lukaskabc.cvut.processor.cli.DocumentationWatcher;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.ExternalClass;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.RecordDirectProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class LauncherTest extends AbstractProcessorTest {
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    private List<String> requestArguments() {
+        var source = Path.of(sourceDirectory, PACKAGE_NAME.replace('.', '/'), getFolderName(),
+                RecordDirectProperties.class.getSimpleName() + ".java");
+        return List.of("-cp", System.getProperty("java.class.path"),
+                "-Aformat=md", "-Aoutput_file=" + getFileName() + ".md",
+                source.toString());
+    }
+
+    @Test
+    void Documentation_is_generated_in_process() {
+        var output = new StringWriter();
+        assertEquals(0, DocgenLauncher.run(requestArguments(), new PrintWriter(output)));
+        assertEquals(2, documentedInOutput(output.toString()));
+        validateFiles(RecordDirectProperties.class.getSimpleName(), "md");
+    }
+
+    @Test
+    void Daemon_executes_repeated_requests() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try (var compiler = new DocumentationCompiler(); var daemon = new DocgenDaemon(0, compiler)) {
+            var serving = executor.submit(() -> {
+                daemon.serve();
+                return null;
+            });
+
+            var client = new DocgenClient(daemon.getPort());
+            var request = DocumentationRequest.parse(requestArguments(), Path.of("").toAbsolutePath());
+            for (int i = 0; i < 2; i++) {
+                var output = new StringWriter();
+                assertEquals(OptionalInt.of(0), client.send(request.toArguments(), new PrintWriter(output)));
+                assertEquals(2, documentedInOutput(output.toString()));
+                validateFiles(RecordDirectProperties.class.getSimpleName(), "md");
+            }
+
+            assertTrue(client.stop());
+            serving.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Daemon_does_not_reuse_locations_of_previous_requests() throws Exception {
+        var root = Path.of("target", "tests", "daemon").toAbsolutePath();
+        var firstDirectory = root.resolve("first");
+        var secondDirectory = root.resolve("second");
+        deleteDirectory(root);
+        Files.createDirectories(firstDirectory.resolve("classes"));
+        Files.createDirectories(secondDirectory);
+        var metadata = Path.of("META-INF", "spring-configuration-metadata.json");
+
+        var executor = Executors.newSingleThreadExecutor();
+        try (var compiler = new DocumentationCompiler(); var daemon = new DocgenDaemon(0, compiler)) {
+            var serving = executor.submit(() -> {
+                daemon.serve();
+                return null;
+            });
+            var client = new DocgenClient(daemon.getPort());
+
+            var firstArguments = new ArrayList<>(requestArguments());
+            firstArguments.addAll(0, List.of("-d", "classes", "-Ametadata"));
+            var first = DocumentationRequest.parse(firstArguments, firstDirectory);
+            assertEquals(OptionalInt.of(0), client.send(first.toArguments(), new PrintWriter(new StringWriter())));
+            assertTrue(Files.isRegularFile(firstDirectory.resolve("classes").resolve(metadata)));
+            Files.delete(firstDirectory.resolve("classes").resolve(metadata));
+
+            // the second request does not specify the class output, resources are written to its working directory
+            var secondArguments = new ArrayList<>(requestArguments());
+            secondArguments.add(0, "-Ametadata");
+            var second = DocumentationRequest.parse(secondArguments, secondDirectory);
+            assertEquals(OptionalInt.of(0), client.send(second.toArguments(), new PrintWriter(new StringWriter())));
+            assertTrue(Files.isRegularFile(secondDirectory.resolve(metadata)));
+            assertFalse(Files.exists(firstDirectory.resolve("classes").resolve(metadata)));
+
+            assertTrue(client.stop());
+            serving.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+            deleteDirectory(root);
+        }
+    }
+
+    @Test
+    void Daemon_rejects_requests_without_its_token() throws Exception {
+        var tokenDirectory = Path.of("target", "tests", "daemon-tokens");
+        var otherTokenDirectory = Path.of("target", "tests", "daemon-other-tokens");
+        deleteDirectory(tokenDirectory);
+        deleteDirectory(otherTokenDirectory);
+
+        var executor = Executors.newSingleThreadExecutor();
+        try (var compiler = new DocumentationCompiler(); var daemon = new DocgenDaemon(0, tokenDirectory, compiler)) {
+            var serving = executor.submit(() -> {
+                daemon.serve();
+                return null;
+            });
+
+            var tokenFile = tokenDirectory.resolve("daemon-" + daemon.getPort() + ".token");
+            if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(tokenFile));
+                assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(tokenDirectory));
+            }
+
+            Files.createDirectories(otherTokenDirectory);
+            Files.writeString(otherTokenDirectory.resolve(tokenFile.getFileName()), "invalid");
+            var otherClient = new DocgenClient(daemon.getPort(), otherTokenDirectory);
+            var output = new StringWriter();
+            assertEquals(OptionalInt.of(2), otherClient.send(requestArguments(), new PrintWriter(output)));
+            assertTrue(output.toString().contains("invalid daemon token"));
+            // the stop request is rejected as well
+            otherClient.stop();
+
+            var client = new DocgenClient(daemon.getPort(), tokenDirectory);
+            assertEquals(OptionalInt.of(0), client.send(requestArguments(), new PrintWriter(new StringWriter())));
+            assertTrue(client.stop());
+            serving.get(10, TimeUnit.SECONDS);
+            assertFalse(Files.exists(tokenFile));
+        } finally {
+            executor.shutdownNow();
+            deleteDirectory(tokenDirectory);
+            deleteDirectory(otherTokenDirectory);
+        }
+    }
+
+    @Test
+    void Client_reports_missing_daemon() throws IOException {
+        int port;
+        try (var compiler = new DocumentationCompiler(); var daemon = new DocgenDaemon(0, compiler)) {
+            port = daemon.getPort();
+        }
+        assertTrue(new DocgenClient(port).send(requestArguments(), new PrintWriter(new StringWriter())).isEmpty());
+    }
+
+    @Test
+    void Watcher_regenerates_documentation_of_changed_sources() throws Exception {
+        var packageDirectory = Path.of("target", "tests", "watch", PACKAGE_NAME.replace('.', '/'), getFolderName());
+        var sourceRoot = Path.of("target", "tests", "watch");
+        deleteDirectory(sourceRoot);
+        Files.createDirectories(packageDirectory);
+
+        var recordSource = packageDirectory.resolve(RecordDirectProperties.class.getSimpleName() + ".java");
+        Files.copy(Path.of(sourceDirectory, PACKAGE_NAME.replace('.', '/'), getFolderName(), recordSource.getFileName().toString()), recordSource);
+        Files.writeString(packageDirectory.resolve("SecondProperties.java"), """
+                package %s.%s;
+
+                import org.springframework.boot.context.properties.ConfigurationProperties;
+
+                /**
+                 * @param option option of the second source
+                 */
+                @ConfigurationProperties("second")
+                public record SecondProperties(String option) {
+                }
+                """.formatted(PACKAGE_NAME, getFolderName()));
+
+        var outputFile = Path.of(getFileName() + ".md");
+        var request = DocumentationRequest.parse(List.of("-cp", System.getProperty("java.class.path"),
+                "-Aformat=md", "-Aoutput_file=" + outputFile, sourceRoot.toString()), Path.of("").toAbsolutePath());
+
+        var executor = Executors.newSingleThreadExecutor();
+        try (var compiler = new DocumentationCompiler();
+             var watcher = new DocumentationWatcher(request, compiler, new PrintWriter(new StringWriter()))) {
+            var watching = executor.submit(() -> {
+                watcher.watch();
+                return null;
+            });
+
+            awaitOutput(outputFile, "componentA javadoc description");
+            assertTrue(Files.readString(outputFile).contains("option of the second source"));
+
+            Files.writeString(recordSource, Files.readString(recordSource)
+                    .replace("componentA javadoc description", "changed componentA description"));
+            awaitOutput(outputFile, "changed componentA description");
+            // snapshots of the unchanged source are kept
+            assertTrue(Files.readString(outputFile).contains("option of the second source"));
+
+            Files.delete(packageDirectory.resolve("SecondProperties.java"));
+            awaitOutput(outputFile, output -> !output.contains("option of the second source"));
+
+            watcher.close();
+            watching.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+            deleteDirectory(sourceRoot);
+        }
+    }
+
+    @Test
+    void Prefiltered_sources_produce_the_same_documentation() throws Exception {
+        var fixtures = Path.of(sourceDirectory, PACKAGE_NAME.replace('.', '/'), getFolderName());
+        var sourceRoot = Path.of("target", "tests", "prefilter");
+        var packageDirectory = sourceRoot.resolve(PACKAGE_NAME.replace('.', '/')).resolve(getFolderName());
+        deleteDirectory(sourceRoot);
+        Files.createDirectories(packageDirectory);
+        try (var files = Files.list(fixtures)) {
+            for (var file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, packageDirectory.resolve(file.getFileName()));
+            }
+        }
+
+        var fullOutputFile = Path.of(getFileName() + "-full.md");
+        var prefilteredOutputFile = Path.of(getFileName() + "-prefiltered.md");
+        try {
+            var arguments = List.of("-cp", System.getProperty("java.class.path"), "-Aformat=md", sourceRoot.toString());
+            var request = DocumentationRequest.parse(arguments, Path.of("").toAbsolutePath());
+            var prefilterArguments = new ArrayList<>(arguments);
+            prefilterArguments.add(0, "-prefilter");
+            var prefilterRequest = DocumentationRequest.parse(prefilterArguments, Path.of("").toAbsolutePath());
+
+            // sources without configuration annotations (e.g. classes with constants) are skipped
+            var prefiltered = prefilterRequest.sourceFiles();
+            assertTrue(prefiltered.size() < request.sourceFiles().size());
+            assertTrue(prefiltered.stream().noneMatch(path -> path.endsWith(ExternalClass.class.getSimpleName() + ".java")));
+
+            assertEquals(0, DocgenLauncher.run(withOutputFile(arguments, fullOutputFile), new PrintWriter(new StringWriter())));
+            assertEquals(0, DocgenLauncher.run(withOutputFile(prefilterArguments, prefilteredOutputFile), new PrintWriter(new StringWriter())));
+            assertEquals(Files.readString(fullOutputFile), Files.readString(prefilteredOutputFile));
+        } finally {
+            deleteDirectory(sourceRoot);
+            Files.deleteIfExists(fullOutputFile);
+            Files.deleteIfExists(prefilteredOutputFile);
+        }
+    }
+
+    private static List<String> withOutputFile(List<String> arguments, Path outputFile) {
+        var result = new ArrayList<>(arguments);
+        result.add(0, "-Aoutput_file=" + outputFile);
+        return result;
+    }
+
+    private void awaitOutput(Path outputFile, String expectedText) throws Exception {
+        awaitOutput(outputFile, output -> output.contains(expectedText));
+    }
+
+    private void awaitOutput(Path outputFile, Predicate<String> condition) throws Exception {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            if (Files.isRegularFile(outputFile) && condition.test(Files.readString(outputFile))) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Documentation was not regenerated in time");
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (var paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private int documentedInOutput(String output) {
+        return output.lines()
+                .filter(line -> line.startsWith("note: In total "))
+                .map(line -> Integer.parseInt(line.split(" ")[3]))
+                .findAny()
+                .orElse(-1);
+    }
+}
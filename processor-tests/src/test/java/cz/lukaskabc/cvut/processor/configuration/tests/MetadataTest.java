@@ -0,0 +1,102 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.JavadocTagsConfiguration;
+import cz.lukaskabc.cvut.processor.docsgenerator.ConfigurationMetadataGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataTest extends AbstractProcessorTest {
+    private static final Path METADATA = Path.of("target/tests/classes", ConfigurationMetadataGenerator.RESOURCE_NAME);
+
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    @AfterEach
+    public void deleteMetadata() throws IOException {
+        Files.deleteIfExists(METADATA);
+    }
+
+    private DocumentContext compileMetadata(String... fileNames) throws IOException {
+        compileWithProcessor(List.of(fileNames), "md", "metadata");
+        assertTrue(Files.isRegularFile(METADATA));
+        return JsonPath.parse(Files.readString(METADATA));
+    }
+
+    private Object property(DocumentContext metadata, String name, String attribute) {
+        List<Object> values = metadata.read("$.properties[?(@.name == '" + name + "')]." + attribute);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    @Test
+    void Nested_properties_use_canonical_names() throws IOException {
+        var metadata = compileMetadata(InnerClassConfiguration.class.getSimpleName());
+
+        List<String> names = metadata.read("$.properties[*].name");
+        assertEquals(List.of("toplevel-prefix.sub-class-attribute-name.sub-value", "toplevel-prefix.value"), names);
+        assertEquals("java.lang.Integer", property(metadata, "toplevel-prefix.sub-class-attribute-name.sub-value", "type"));
+        assertEquals("java.lang.String", property(metadata, "toplevel-prefix.value", "type"));
+        assertEquals("Top level attribute", property(metadata, "toplevel-prefix.value", "description"));
+    }
+
+    @Test
+    void Default_values_are_typed() throws IOException {
+        var metadata = compileMetadata(DefaultValueConfiguration.class.getSimpleName());
+
+        assertEquals(true, property(metadata, "boolean-primitive", "defaultValue"));
+        assertEquals(true, property(metadata, "boolean-wrapped", "defaultValue"));
+        assertEquals(1, property(metadata, "byte-primitive", "defaultValue"));
+        assertEquals("boolean", property(metadata, "boolean-primitive", "type"));
+        assertEquals(null, property(metadata, "boolean-primitive-none", "defaultValue"));
+    }
+
+    @Test
+    void Default_values_of_arrays_and_collections_are_json_arrays() throws IOException {
+        var metadata = compileMetadata(DefaultValueConfiguration.class.getSimpleName());
+
+        assertEquals(List.of("string1", "string2"), property(metadata, "string-array-attribute", "defaultValue"));
+        assertEquals(List.of(true, false), property(metadata, "primitive-boolean-array-attribute", "defaultValue"));
+        // values which are not evaluated remain strings
+        assertEquals("Arrays.asList(1, 2, 3)", property(metadata, "integer-list", "defaultValue"));
+    }
+
+    @Test
+    void Descriptions_are_plain_javadoc_text() throws IOException {
+        var metadata = compileMetadata(JavadocTagsConfiguration.class.getSimpleName());
+
+        var description = (String) property(metadata, "attribute", "description");
+        assertTrue(description.startsWith("Standard Javadoc text. With more than one sentence. And more than one line. "
+                + "Also {@code lets add some <code> *formatted* text}. <p> With some HTML paragraph.<br>and HTML new lines.<br>"), description);
+        assertFalse(description.contains("@since"), description);
+        assertFalse(description.contains("```"), description);
+    }
+
+    @Test
+    void Deprecated_properties_are_marked() throws IOException {
+        var metadata = compileMetadata("order/OrderConfiguration");
+
+        assertEquals(true, property(metadata, "order.g", "deprecated"));
+        assertEquals("warning", property(metadata, "order.g", "deprecation.level"));
+        assertEquals(null, property(metadata, "order.a", "deprecated"));
+    }
+
+    @Test
+    void Metadata_is_not_written_by_default() {
+        compileWithProcessor(List.of(InnerClassConfiguration.class.getSimpleName()), "md");
+        assertFalse(Files.exists(METADATA));
+    }
+}
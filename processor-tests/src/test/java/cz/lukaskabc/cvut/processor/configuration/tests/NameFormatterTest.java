@@ -0,0 +1,125 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.NameFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Compares name combination with the original regular expression implementation
+ */
+class NameFormatterTest {
+
+    private static final List<String> SAMPLES = List.of(
+            "",
+            " ",
+            "_",
+            "name",
+            "NAME",
+            "multi-word-name",
+            "nested.property.name",
+            "  spaced name  ",
+            "tab\tand\nline break",
+            "__leading_and_trailing__",
+            "._dot.",
+            "-_-",
+            "\u0001control\u0001",
+            "in\u0001side",
+            "name_\u2028",
+            "name__\u0085",
+            "_\u2029",
+            "\u00DFtra\u00DFe",
+            "istanbul",
+            "ALREADY_CONVERTED_NAME"
+    );
+
+    /**
+     * Fragments used for generating random names
+     */
+    private static final List<String> FRAGMENTS = List.of(" ", "\t", "\n", "\r", "\u000B", "\f", "\u0001", "-", ".", "_", "__",
+            "a", "name", "Name", "i", "I", "1", "\u00DF", "\u00E9", "\u0130", "\u0131", "\u0085", "\u2028", "\u00A0");
+
+    /**
+     * Language tags of tested default locales, including locales with special upper case mapping
+     */
+    static Stream<String> locales() {
+        return Stream.of("und", "en", "tr", "lt");
+    }
+
+    private static List<String> inputs() {
+        var inputs = new ArrayList<>(SAMPLES);
+        var random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            var text = new StringBuilder();
+            var length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                text.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+            }
+            inputs.add(text.toString());
+        }
+        return inputs;
+    }
+
+    private static String regexCombine(String... names) {
+        return Arrays.stream(names)
+                .map(s ->
+                        s.trim()
+                                .replaceAll("\\s+", "")
+                                .replace("-", "")
+                                .replace(".", "_")
+                                .replaceAll("(^_+)|(_+$)", "")
+                                .toUpperCase()
+                ).filter(s -> !s.isEmpty())
+                .collect(Collectors.joining("_"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locales")
+    void Combine_matches_regex_implementation(String languageTag) {
+        var defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag(languageTag));
+            var inputs = inputs();
+            var random = new Random(7);
+            for (var input : inputs) {
+                assertEquals(regexCombine(input), NameFormatter.combine(input), () -> "Input: " + escape(input));
+
+                var prefix = inputs.get(random.nextInt(inputs.size()));
+                assertEquals(regexCombine(prefix, input), NameFormatter.combine(prefix, input),
+                        () -> "Input: " + escape(prefix) + ", " + escape(input));
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void Converted_prefix_is_reused() {
+        var prefix = NameFormatter.combine("env-prefix", "nested.name");
+        assertSame(prefix, NameFormatter.combine("", prefix));
+        assertEquals(prefix + "_OPTION", NameFormatter.combine(prefix, "option"));
+    }
+
+    private static String escape(String text) {
+        var result = new StringBuilder("\"");
+        text.chars().forEach(c -> {
+            if (c < 0x20 || c > 0x7E) {
+                result.append(String.format("\\u%04X", c));
+            } else {
+                result.append((char) c);
+            }
+        });
+        return result.append('"').toString();
+    }
+}
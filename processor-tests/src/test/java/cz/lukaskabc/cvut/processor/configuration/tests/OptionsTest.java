@@ -1,6 +1,8 @@
 package cz.lukaskabc.cvut.processor.configuration.tests;
 
 import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.order.OrderConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.value.ValueAnnotationCommentOverloading;
 import org.junit.jupiter.api.Test;
 
 class OptionsTest extends AbstractProcessorTest {
@@ -10,4 +12,19 @@ class OptionsTest extends AbstractProcessorTest {
         documentFile("properties/" + InnerClassConfiguration.class.getSimpleName(), ext, 2, "env_prefix=myprefix");
         validateFiles("OptionEnvPrefix", ext);
     }
+
+    /**
+     * Options are rendered in multiple chunks (including options with merged duplicate comments),
+     * the output has to be the same as with sequential rendering
+     */
+    @Test
+    void Parallel_rendering_keeps_output() {
+        var fileName = "properties/order/" + OrderConfiguration.class.getSimpleName();
+        documentFile(fileName, "html", 16, "parallelism=4");
+        validateFiles(fileName + "-asc-order", "html");
+
+        fileName = "value/" + ValueAnnotationCommentOverloading.class.getSimpleName();
+        documentFile(fileName, "html", 2, "parallelism=2");
+        validateFiles(fileName, "html");
+    }
 }
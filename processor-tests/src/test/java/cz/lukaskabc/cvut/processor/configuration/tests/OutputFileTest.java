@@ -0,0 +1,81 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OutputFileTest extends AbstractProcessorTest {
+    private static final FileTime PAST_TIME = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    @Test
+    void Unchanged_output_file_is_not_rewritten() throws IOException {
+        var fileName = InnerClassConfiguration.class.getSimpleName();
+        var outputFile = new File(getFileName() + ".md").toPath();
+
+        compileWithProcessor(List.of(fileName), "md");
+        Files.setLastModifiedTime(outputFile, PAST_TIME);
+
+        compileWithProcessor(List.of(fileName), "md");
+        validateFiles(fileName, "md");
+        assertEquals(PAST_TIME, Files.getLastModifiedTime(outputFile));
+    }
+
+    @Test
+    void Changed_output_file_is_replaced() throws IOException {
+        var fileName = InnerClassConfiguration.class.getSimpleName();
+        var outputFile = new File(getFileName() + ".md").toPath();
+
+        Files.writeString(outputFile, "outdated documentation");
+        Files.setLastModifiedTime(outputFile, PAST_TIME);
+
+        compileWithProcessor(List.of(fileName), "md");
+        validateFiles(fileName, "md");
+        assertNotEquals(PAST_TIME, Files.getLastModifiedTime(outputFile));
+    }
+
+    @Test
+    void New_output_file_has_default_permissions() throws IOException {
+        var outputFile = new File(getFileName() + ".md").toPath();
+        assumeTrue(outputFile.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        // file created with the default permissions (according to the umask)
+        var referenceFile = new File(getFileName() + "-reference").toPath();
+        try {
+            Files.createFile(referenceFile);
+            compileWithProcessor(List.of(InnerClassConfiguration.class.getSimpleName()), "md");
+            assertEquals(Files.getPosixFilePermissions(referenceFile), Files.getPosixFilePermissions(outputFile));
+        } finally {
+            Files.deleteIfExists(referenceFile);
+        }
+    }
+
+    @Test
+    void Replaced_output_file_keeps_its_permissions() throws IOException {
+        var outputFile = new File(getFileName() + ".md").toPath();
+        assumeTrue(outputFile.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        var permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.writeString(outputFile, "outdated documentation");
+        Files.setPosixFilePermissions(outputFile, permissions);
+
+        compileWithProcessor(List.of(InnerClassConfiguration.class.getSimpleName()), "md");
+        validateFiles(InnerClassConfiguration.class.getSimpleName(), "md");
+        assertEquals(permissions, Files.getPosixFilePermissions(outputFile));
+    }
+}
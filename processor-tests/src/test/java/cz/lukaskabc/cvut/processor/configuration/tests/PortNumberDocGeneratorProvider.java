@@ -0,0 +1,20 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.docsgenerator.ConstraintDocGenerator;
+import cz.lukaskabc.cvut.processor.docsgenerator.ConstraintDocGeneratorProvider;
+
+import java.util.Map;
+
+public class PortNumberDocGeneratorProvider implements ConstraintDocGeneratorProvider {
+    @Override
+    public Map<String, ConstraintDocGenerator> getConstraintDocGenerators() {
+        return Map.of(PortNumber.class.getCanonicalName(), (formatter, annotationMirror, element) -> {
+            formatter.rawAppend("has to be valid port number between ")
+                    .code("1")
+                    .rawAppend(" and ")
+                    .code("65535")
+                    .newline();
+            return true;
+        });
+    }
+}
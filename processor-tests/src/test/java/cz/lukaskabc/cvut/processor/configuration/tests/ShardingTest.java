@@ -0,0 +1,104 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.cli.DocumentationCompiler;
+import cz.lukaskabc.cvut.processor.cli.DocumentationRequest;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.DefaultValueConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.JavadocTagsConfiguration;
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.RecordDirectProperties;
+import cz.lukaskabc.cvut.processor.fragment.DocumentationFragment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardingTest extends AbstractProcessorTest {
+    private static final int SHARDS = 3;
+
+    private static final List<String> FILES = List.of(
+            RecordDirectProperties.class.getSimpleName(),
+            InnerClassConfiguration.class.getSimpleName(),
+            DefaultValueConfiguration.class.getSimpleName(),
+            JavadocTagsConfiguration.class.getSimpleName());
+
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    private static Path shardFragment(int shard) {
+        return Path.of("target/tests/classes", DocumentationFragment.resourceName(shard, SHARDS));
+    }
+
+    private Path shardCacheFile(int shard) {
+        return Path.of(getFileName() + ".cache-shard-" + shard + "-of-" + SHARDS);
+    }
+
+    @AfterEach
+    public void deleteShardFragments() throws IOException {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Files.deleteIfExists(shardFragment(shard));
+            Files.deleteIfExists(shardCacheFile(shard));
+        }
+    }
+
+    @Test
+    void Merged_shards_produce_the_same_documentation() throws IOException {
+        var options = InTotalDocumented(compileWithProcessor(FILES, "md"));
+        var expected = Files.readString(Path.of(getFileName() + ".md"));
+
+        Files.delete(Path.of(getFileName() + ".md"));
+
+        var fragments = new ArrayList<String>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            compileWithProcessor(FILES, "md", "shard=" + shard + "/" + SHARDS, "fragment");
+            assertTrue(Files.isRegularFile(shardFragment(shard)));
+            fragments.add(shardFragment(shard).toString());
+        }
+        // shards write only their fragments, not partial documentation
+        assertFalse(Files.exists(Path.of(getFileName() + ".md")));
+
+        var request = DocumentationRequest.parse(List.of("-Aformat=md", "-Aoutput_file=" + getFileName() + ".md",
+                "-Afragment_files=" + String.join(File.pathSeparator, fragments)), Path.of("").toAbsolutePath());
+        var output = new StringWriter();
+        try (var compiler = new DocumentationCompiler()) {
+            assertTrue(compiler.merge(request, new PrintWriter(output)), output::toString);
+        }
+
+        assertTrue(output.toString().contains("In total " + options + " values"), output::toString);
+        assertEquals(expected, Files.readString(Path.of(getFileName() + ".md")));
+    }
+
+    @Test
+    void Multiple_configuration_packages_are_documented() {
+        var files = List.of(RecordDirectProperties.class.getSimpleName(), "order/OrderConfiguration");
+        var all = InTotalDocumented(compileWithProcessor(files, "md"));
+        var order = InTotalDocumented(compileWithProcessor(List.of("order/OrderConfiguration"), "md"));
+
+        var logs = compileWithProcessor(files, "md", "configuration_package=" + PACKAGE_NAME + ".nonexistent, " + PACKAGE_NAME + ".properties.order");
+        assertEquals(order, InTotalDocumented(logs));
+
+        logs = compileWithProcessor(files, "md", "configuration_package=" + PACKAGE_NAME + ".properties.order," + PACKAGE_NAME + ".properties");
+        assertEquals(all, InTotalDocumented(logs));
+    }
+
+    @Test
+    void Shards_save_their_own_cache_files() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            compileWithProcessor(FILES, "md", "shard=" + shard + "/" + SHARDS, "fragment", "cache_file=" + getFileName() + ".cache");
+            assertTrue(Files.isRegularFile(shardCacheFile(shard)));
+        }
+        assertFalse(Files.exists(Path.of(getFileName() + ".cache")));
+    }
+}
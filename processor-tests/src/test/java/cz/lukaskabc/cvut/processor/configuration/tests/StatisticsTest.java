@@ -0,0 +1,42 @@
+package cz.lukaskabc.cvut.processor.configuration.tests;
+
+import cz.lukaskabc.cvut.processor.configuration.tests.properties.InnerClassConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatisticsTest extends AbstractProcessorTest {
+    @Override
+    protected String getFolderName() {
+        return "properties";
+    }
+
+    private String statsFileName() {
+        return getFileName() + ".stats.json";
+    }
+
+    @AfterEach
+    public void deleteStatsFile() {
+        new File(statsFileName()).delete();
+    }
+
+    @Test
+    void Statistics_are_written_to_stats_file() throws IOException {
+        var fileName = InnerClassConfiguration.class.getSimpleName();
+
+        compileWithProcessor(List.of(fileName), "md", "stats_file=" + statsFileName());
+        validateFiles(fileName, "md");
+
+        var stats = Files.readString(new File(statsFileName()).toPath());
+        assertTrue(stats.contains("\"properties_scan\": {\"invocations\": 1,"));
+        assertTrue(stats.contains("\"template_write\": {\"invocations\": 1,"));
+        assertTrue(stats.contains("\"documented_options\": "));
+        assertTrue(stats.contains("\"cache\": null"));
+    }
+}
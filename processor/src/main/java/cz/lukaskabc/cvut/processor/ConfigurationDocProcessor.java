@@ -1,9 +1,16 @@
 package cz.lukaskabc.cvut.processor;
 
 import com.sun.source.doctree.DocTree;
+import com.sun.source.tree.Tree;
 import com.sun.source.util.TreePath;
+import com.sun.source.util.Trees;
+import cz.lukaskabc.cvut.processor.ProcessorStatistics.Phase;
+import cz.lukaskabc.cvut.processor.cache.DecoratorCache;
+import cz.lukaskabc.cvut.processor.descriptor.ConstructorIndex;
+import cz.lukaskabc.cvut.processor.docsgenerator.ConfigurationMetadataGenerator;
 import cz.lukaskabc.cvut.processor.docsgenerator.ElementDecoratorDocGenerator;
 import cz.lukaskabc.cvut.processor.docsgenerator.TemplateDocsGenerator;
+import cz.lukaskabc.cvut.processor.fragment.DocumentationFragment;
 import cz.lukaskabc.cvut.processor.visitor.DefaultValueCollector;
 import cz.lukaskabc.cvut.processor.visitor.PropertiesClassScanner;
 import cz.lukaskabc.cvut.processor.visitor.ValueAnnotationScanner;
@@ -13,12 +20,18 @@ import org.springframework.context.annotation.Bean;
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import java.io.File;
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static cz.lukaskabc.cvut.processor.ProcessorConfiguration.*;
@@ -39,25 +52,34 @@ import static cz.lukaskabc.cvut.processor.ProcessorConfiguration.*;
         ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "no_html",
         ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "format",
         ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "template",
-        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "env_prefix"})
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "env_prefix",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "cache_file",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "parallelism",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "no_class_loading",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "stats_file",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "fragment",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "aggregate",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "metadata",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "shard",
+        ProcessorConfiguration.PROCESSOR_CONFIGURATION_PREFIX + "fragment_files"})
 public class ConfigurationDocProcessor extends AbstractProcessor {
 
     private final ProcessorConfiguration processorConfiguration = new ProcessorConfiguration();
 
     /**
-     * Decorators of config properties under {@link ConfigurationProperties @ConfigurationProperties} annotated structure
+     * Snapshots of config properties under {@link ConfigurationProperties @ConfigurationProperties} annotated structure
      */
-    private final List<ElementDecorator> propertiesDecorators = new ArrayList<>();
+    private final List<DecoratorSnapshot> propertiesDecorators = new ArrayList<>();
 
     /**
-     * Decorators of config properties with {@link org.springframework.beans.factory.annotation.Value @Value} annotation
+     * Snapshots of config properties with {@link org.springframework.beans.factory.annotation.Value @Value} annotation
      */
-    private final List<ElementDecorator> valueDecorators = new ArrayList<>();
+    private final List<DecoratorSnapshot> valueDecorators = new ArrayList<>();
 
     /**
      * Paths of annotated elements discovered during several processing rounds
      */
-    private final Map<String, Set<TreePath>> watchedElements = new HashMap<>();
+    private final Map<String, WatchedPaths> watchedElements = new HashMap<>();
 
     /**
      * Wrapper around {@link ProcessingEnvironment} providing source utilities
@@ -69,12 +91,64 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
      */
     private DefaultValueCollector defaultValueCollector;
 
+    /**
+     * Constructors of configuration classes shared by the scanner and the default value collector
+     */
+    private ConstructorIndex constructorIndex;
+
+    /**
+     * Generator rendering decorators into snapshots and documentation
+     */
+    private ElementDecoratorDocGenerator decoratorDocGenerator;
+
+    /**
+     * Cache of snapshots from previous runs, null when caching is disabled
+     */
+    private DecoratorCache decoratorCache = null;
+
+    /**
+     * Timings and counters of processing phases
+     */
+    private final ProcessorStatistics statistics = new ProcessorStatistics();
 
     /**
      * Whether the processor has been initialized
      */
     private boolean initialized = false;
 
+    /**
+     * Snapshots documented in previous runs by the source file of their annotated element,
+     * updated with sources processed in this run, null when the processor is not reused
+     */
+    private final Map<URI, DocumentationFragment> sourceFragments;
+
+    /**
+     * Snapshots of sources processed in this run, used only with {@link #sourceFragments}
+     */
+    private final Map<URI, List<DecoratorSnapshot>> sourceProperties = new LinkedHashMap<>();
+
+    /**
+     * @see #sourceProperties
+     */
+    private final Map<URI, List<DecoratorSnapshot>> sourceValues = new LinkedHashMap<>();
+
+    public ConfigurationDocProcessor() {
+        this(null);
+    }
+
+    /**
+     * Creates processor documenting also options from sources processed in previous runs
+     * (e.g. when only changed sources are compiled by a long-running launcher).
+     * <p>
+     * Entries of sources processed in this run are replaced,
+     * the caller is responsible for removing entries of changed or deleted sources before the run.
+     *
+     * @param sourceFragments snapshots by the source file, updated by the processor
+     */
+    public ConfigurationDocProcessor(Map<URI, DocumentationFragment> sourceFragments) {
+        this.sourceFragments = sourceFragments;
+    }
+
 
     /**
      * Unwrap environment from JetBrains API wrapper (only when running in IntelliJ IDEA)
@@ -101,7 +175,6 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
         super.init(processingEnv);
         var environment = jbUnwrap(ProcessingEnvironment.class, processingEnv);
         this.envUtils = new EnvironmentUtils(environment);
-        this.defaultValueCollector = new DefaultValueCollector(envUtils);
 
         Log.init(envUtils);
 
@@ -114,6 +187,14 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
 
         // validate initialized state
         initialized = processorConfiguration.validateConfiguration();
+
+        this.constructorIndex = new ConstructorIndex();
+        this.defaultValueCollector = new DefaultValueCollector(envUtils, constructorIndex, processorConfiguration.getLoadClasses());
+        this.decoratorDocGenerator = new ElementDecoratorDocGenerator(processorConfiguration.getFormatter());
+        if (processorConfiguration.getCacheFile() != null) {
+            this.decoratorCache = DecoratorCache.load(new File(processorConfiguration.getCacheFile()), envUtils,
+                    processorConfiguration.getCacheFingerprint());
+        }
     }
 
     @Override
@@ -135,18 +216,36 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
             return false;
 
         // cache all discovered elements with specific annotations as paths
-        var propertiesElements = watchElementsWithAnnotation(roundEnv, CONFIGURATION_PROPERTIES_ANNOTATION);
-        var valueElements = watchElementsWithAnnotation(roundEnv, VALUE_ANNOTATION);
+        statistics.measure(Phase.ELEMENT_WATCHING, () -> {
+            watchElementsWithAnnotation(roundEnv, CONFIGURATION_PROPERTIES_ANNOTATION);
+            watchElementsWithAnnotation(roundEnv, VALUE_ANNOTATION);
+        });
 
         // wait on the last round and then process collected elements
         if (roundEnv.processingOver()) {
+            var propertiesElements = statistics.measure(Phase.ELEMENT_WATCHING, () -> resolveWatchedElements(CONFIGURATION_PROPERTIES_ANNOTATION));
+            var valueElements = statistics.measure(Phase.ELEMENT_WATCHING, () -> resolveWatchedElements(VALUE_ANNOTATION));
+
             Log.instance().info("Processing configuration properties for documentation");
             // find all configuration options in annotated structures
             // find default values for them
             processConfigurationPropertiesAnnotation(propertiesElements);
             processValueAnnotation(valueElements);
-            // generate documentation for collected decorators
-            writeDocumentation();
+            writeFragment();
+            if (decoratorCache != null) {
+                decoratorCache.save();
+            }
+            if (processorConfiguration.getShardCount() > 1) {
+                // shards write only their fragments, the documentation is written by merging them
+                // (parallel shards would overwrite the same output file with partial documentation)
+                Log.instance().info("Documentation of shard " + processorConfiguration.getShardIndex() + "/" + processorConfiguration.getShardCount()
+                        + " written to the fragment, " + (this.propertiesDecorators.size() + this.valueDecorators.size()) + " values in the shard.");
+            } else {
+                writeMetadata();
+                // generate documentation for collected decorators
+                writeDocumentation();
+            }
+            writeStatistics();
         }
 
         return false;
@@ -154,50 +253,91 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
 
     /**
      * Searches current round environment for elements with specified annotation and
-     * caches their tree paths for later processing
+     * caches their tree paths for later processing.
+     * Elements are resolved from the paths only once, in the last round (see {@link #resolveWatchedElements(String)}).
      *
      * @param roundEnv            current round environment
      * @param annotationQualifier Fully qualified name of annotation
-     * @return Set of cached elements with specified annotation
      */
-    private Set<Element> watchElementsWithAnnotation(RoundEnvironment roundEnv, String annotationQualifier) {
+    private void watchElementsWithAnnotation(RoundEnvironment roundEnv, String annotationQualifier) {
         var elementUtils = envUtils.elements();
         TypeElement annotationType = elementUtils.getTypeElement(annotationQualifier);
         if (annotationType == null) {
             // annotation was not found
-            return Set.of();
+            return;
         }
 
         // get annotated elements in this round
         var elements = roundEnv.getElementsAnnotatedWith(annotationType);
-        var watched = watchedElements.getOrDefault(annotationQualifier, new LinkedHashSet<>());
+        if (elements.isEmpty()) {
+            return;
+        }
 
         var treeUtils = envUtils.trees();
+        var watched = watchedElements.computeIfAbsent(annotationQualifier, k -> new WatchedPaths());
+        for (var element : elements) {
+            // filter only elements from specified configuration packages and shard
+            if (isDocumented(element)) {
+                // map to tree paths (elements are mostly invalidated between rounds,
+                // paths remain valid)
+                watched.add(treeUtils.getPath(element));
+            }
+        }
+    }
 
-        if (!elements.isEmpty()) {
-            var elementTrees = elements.stream()
-                    // filter only elements from specified configuration package
-                    .filter(element -> {
-                        var pckgName = elementUtils.getPackageOf(element).getQualifiedName().toString();
-                        return processorConfiguration.getConfigurationPackage().isBlank() || pckgName.startsWith(processorConfiguration.getConfigurationPackage());
-                    })
-                    // map to tree paths (elements are mostly invalidated between rounds,
-                    // paths remain valid)
-                    .map(treeUtils::getPath)
-                    .toList();
-            watched.addAll(elementTrees);
-            watchedElements.put(annotationQualifier, watched);
+    /**
+     * Resolves current elements from paths cached by {@link #watchElementsWithAnnotation(RoundEnvironment, String)}
+     *
+     * @param annotationQualifier Fully qualified name of annotation
+     * @return Set of cached elements with specified annotation in the order of their discovery
+     */
+    private Set<Element> resolveWatchedElements(String annotationQualifier) {
+        var watched = watchedElements.get(annotationQualifier);
+        if (watched == null) {
+            return Set.of();
         }
 
-        // resolve current elements from cached paths and return as set
-        return watched.stream().map(treeUtils::getElement).filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        var treeUtils = envUtils.trees();
+        var elements = new LinkedHashSet<Element>(watched.paths.size() * 2);
+        for (var path : watched.paths) {
+            var element = treeUtils.getElement(path);
+            if (element != null) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * @return true when the element is in one of the configured packages (if any)
+     * and its top level class belongs to the documented shard
+     */
+    private boolean isDocumented(Element element) {
+        var elementUtils = envUtils.elements();
+        var packages = processorConfiguration.getConfigurationPackages();
+        if (!packages.isEmpty()) {
+            var pckgName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+            if (packages.stream().noneMatch(pckgName::startsWith)) {
+                return false;
+            }
+        }
+
+        if (processorConfiguration.getShardCount() > 1) {
+            var topLevel = element;
+            while (topLevel.getEnclosingElement() != null && topLevel.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+                topLevel = topLevel.getEnclosingElement();
+            }
+            var name = topLevel instanceof TypeElement type ? type.getQualifiedName().toString() : topLevel.toString();
+            return processorConfiguration.isInShard(name);
+        }
+        return true;
     }
 
     /**
      * Process elements with
      * {@link org.springframework.boot.context.properties.ConfigurationProperties
      * ConfigurationProperties} annotation wrapping them into {@link ElementDecorator},
-     * resolving default values and storing them in {@link #propertiesDecorators}
+     * resolving default values and storing their snapshots in {@link #propertiesDecorators}
      *
      * @param elements Elements with
      *                 {@link org.springframework.boot.context.properties.ConfigurationProperties
@@ -207,65 +347,101 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
 
         var propertyClassScanner = new PropertiesClassScanner(
                 envUtils,
+                constructorIndex,
                 REQUIRE_GETTER_FOR_PROPERTIES,
                 processorConfiguration.getEnvPrefix(),
                 processorConfiguration.getSplitOptionsOnCapital()
         );
 
         for (var element : elements) {
-            var annotation = element.getAnnotation(ConfigurationProperties.class);
+            var processed = propertiesDecorators.size();
+            processConfigurationPropertiesElement(propertyClassScanner, element);
+            addSourceSnapshots(sourceProperties, element, propertiesDecorators.subList(processed, propertiesDecorators.size()));
+        }
+    }
 
-            switch (element.getKind()) {
-                case CLASS, RECORD -> {
-                    var typeElement = (TypeElement) element;
-                    propertyClassScanner.visitConfiguration(typeElement, typeElement, annotation, propertiesDecorators,
-                            new ArrayList<>(), true);
+    /**
+     * Scans a single element with {@link ConfigurationProperties @ConfigurationProperties} annotation
+     * and stores snapshots of its options in {@link #propertiesDecorators}
+     */
+    private void processConfigurationPropertiesElement(PropertiesClassScanner propertyClassScanner, Element element) {
+        var cacheKey = DecoratorCache.elementKey(CONFIGURATION_PROPERTIES_ANNOTATION, element);
+        if (loadFromCache(cacheKey, propertiesDecorators)) {
+            return;
+        }
+        startMessageCapture();
+        try {
+            var decorators = new ArrayList<ElementDecorator>();
+            if (!statistics.measure(Phase.PROPERTIES_SCAN, () -> scanConfigurationPropertiesElement(propertyClassScanner, element, decorators))) {
+                return;
+            }
+
+            var dependencies = new ArrayList<Element>(propertyClassScanner.drainVisitedTypes());
+            dependencies.add(element);
+            addSnapshots(cacheKey, decorators, dependencies, propertiesDecorators);
+        } finally {
+            // the capture is stopped by addSnapshots, unless the element was skipped or its processing failed
+            Log.stopCapture();
+        }
+    }
+
+    /**
+     * Visits the element with {@link ConfigurationProperties @ConfigurationProperties} annotation
+     * and collects decorators of its options
+     *
+     * @return false when the element was skipped
+     */
+    private boolean scanConfigurationPropertiesElement(PropertiesClassScanner propertyClassScanner, Element element, List<ElementDecorator> decorators) {
+        var annotation = element.getAnnotation(ConfigurationProperties.class);
+        switch (element.getKind()) {
+            case CLASS, RECORD -> {
+                var typeElement = (TypeElement) element;
+                propertyClassScanner.visitConfiguration(typeElement, typeElement, annotation, decorators,
+                        new ArrayList<>(), true);
+            }
+            case METHOD -> {
+                var method = (ExecutableElement) element;
+                var type = method.getReturnType();
+                var typeElement = (TypeElement) envUtils.types().asElement(type);
+
+                var beanAnnotation = method.getAnnotation(Bean.class);
+                if (beanAnnotation == null) {
+                    // TODO: shouldn't this be an error?
+                    Log.withContext(method)
+                            .warn("Method annotated with @ConfigurationProperties is missing @Bean annotation: "
+                                    + method.getSimpleName());
                 }
-                case METHOD -> {
-                    var method = (ExecutableElement) element;
-                    var type = method.getReturnType();
-                    var typeElement = (TypeElement) envUtils.types().asElement(type);
-
-                    var beanAnnotation = method.getAnnotation(Bean.class);
-                    if (beanAnnotation == null) {
-                        // TODO: shouldn't this be an error?
-                        Log.withContext(method)
-                                .warn("Method annotated with @ConfigurationProperties is missing @Bean annotation: "
-                                        + method.getSimpleName());
-                    }
 
-                    if (typeElement == null) {
-                        Log.withContext(element)
-                                .warn("Skipping method with @ConfigurationProperties annotation: " + method.getSimpleName()
-                                        + " (Type " + type.toString() + " not found)");
-                        continue;
-                    }
+                if (typeElement == null) {
+                    Log.withContext(element)
+                            .warn("Skipping method with @ConfigurationProperties annotation: " + method.getSimpleName()
+                                    + " (Type " + type.toString() + " not found)");
+                    return false;
+                }
 
-                    var docs = new ArrayList<DocTree>();
+                var docs = new ArrayList<DocTree>();
 
-                    var methodDoc = envUtils.docTrees().getDocCommentTree(method);
-                    if (methodDoc != null)
-                        docs.add(methodDoc);
+                var methodDoc = envUtils.docTrees().getDocCommentTree(method);
+                if (methodDoc != null)
+                    docs.add(methodDoc);
 
-                    propertyClassScanner.visitConfiguration(typeElement, method, annotation, propertiesDecorators,
-                            docs, false);
-                }
-                default -> {
-                    // no other kinds should be possible by annotation definition
-                    Log.instance()
-                            .warn("Skipping element with @ConfigurationProperties annotation: " + element.getKind() + " "
-                                    + element.getSimpleName() + " (unsupported element kind)");
-                }
+                propertyClassScanner.visitConfiguration(typeElement, method, annotation, decorators,
+                        docs, false);
+            }
+            default -> {
+                // no other kinds should be possible by annotation definition
+                Log.instance()
+                        .warn("Skipping element with @ConfigurationProperties annotation: " + element.getKind() + " "
+                                + element.getSimpleName() + " (unsupported element kind)");
             }
         }
-
-        loadDefaultValues(propertiesDecorators);
+        return true;
     }
 
     /**
      * Process elements with {@link org.springframework.beans.factory.annotation.Value
      * Value} annotation wrapping them into {@link ElementDecorator}, resolving default
-     * values and storing them in {@link #valueDecorators}
+     * values and storing their snapshots in {@link #valueDecorators}
      *
      * @param elements Elements with
      *                 {@link org.springframework.beans.factory.annotation.Value Value} annotation
@@ -274,10 +450,105 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
         var valueScanner = new ValueAnnotationScanner(envUtils);
 
         for (var element : elements) {
-            valueScanner.visit(element, valueDecorators);
+            var processed = valueDecorators.size();
+            processValueElement(valueScanner, element);
+            addSourceSnapshots(sourceValues, element, valueDecorators.subList(processed, valueDecorators.size()));
         }
+    }
 
-        loadDefaultValues(valueDecorators);
+    /**
+     * Scans a single element with {@link org.springframework.beans.factory.annotation.Value Value} annotation
+     * and stores snapshots of its options in {@link #valueDecorators}
+     */
+    private void processValueElement(ValueAnnotationScanner valueScanner, Element element) {
+        var cacheKey = DecoratorCache.elementKey(VALUE_ANNOTATION, element);
+        if (loadFromCache(cacheKey, valueDecorators)) {
+            return;
+        }
+        startMessageCapture();
+        try {
+            var decorators = new ArrayList<ElementDecorator>();
+            statistics.measure(Phase.VALUE_SCAN, () -> valueScanner.visit(element, decorators));
+            addSnapshots(cacheKey, decorators, List.of(element), valueDecorators);
+        } finally {
+            // the capture is stopped by addSnapshots, unless the processing failed
+            Log.stopCapture();
+        }
+    }
+
+    /**
+     * Stores snapshots of the element by its source file (when {@link #sourceFragments} are used)
+     *
+     * @param target    map of snapshots by the source file
+     * @param element   processed element
+     * @param snapshots snapshots of the element
+     */
+    private void addSourceSnapshots(Map<URI, List<DecoratorSnapshot>> target, Element element, List<DecoratorSnapshot> snapshots) {
+        if (sourceFragments == null) {
+            return;
+        }
+
+        var path = envUtils.trees().getPath(element);
+        if (path == null) {
+            return;
+        }
+        var uri = path.getCompilationUnit().getSourceFile().toUri();
+        target.computeIfAbsent(uri, ignored -> new ArrayList<>()).addAll(snapshots);
+    }
+
+    /**
+     * Adds snapshots from {@link #decoratorCache} when caching is enabled and the cached entry is valid
+     *
+     * @param cacheKey key of the processed element
+     * @param target   list for storing the snapshots
+     * @return true when snapshots were loaded from the cache, false otherwise
+     */
+    private boolean loadFromCache(String cacheKey, List<DecoratorSnapshot> target) {
+        if (decoratorCache == null) {
+            return false;
+        }
+
+        var cached = decoratorCache.lookup(cacheKey);
+        cached.ifPresent(target::addAll);
+        cached.ifPresent(snapshots -> statistics.count("cached_options", snapshots.size()));
+        return cached.isPresent();
+    }
+
+    /**
+     * Starts capturing warnings of the processed element, so they are cached with its snapshots (when caching is enabled)
+     *
+     * @see #addSnapshots(String, List, List, List)
+     */
+    private void startMessageCapture() {
+        if (decoratorCache != null) {
+            Log.startCapture();
+        }
+    }
+
+    /**
+     * Resolves default values for decorators, renders them into snapshots,
+     * stores them in the target list and in {@link #decoratorCache} (when enabled)
+     *
+     * @param cacheKey     key of the processed element
+     * @param decorators   decorators of the processed element
+     * @param dependencies elements the result depends on (in addition to the decorated ones)
+     * @param target       list for storing the snapshots
+     */
+    private void addSnapshots(String cacheKey, List<ElementDecorator> decorators, List<Element> dependencies, List<DecoratorSnapshot> target) {
+        statistics.measure(Phase.DEFAULT_VALUES, () -> loadDefaultValues(decorators));
+
+        var snapshots = statistics.measure(Phase.RENDERING, () -> decorators.stream().map(decoratorDocGenerator::snapshot).toList());
+        target.addAll(snapshots);
+        statistics.count("scanned_options", snapshots.size());
+
+        var resolvedElements = defaultValueCollector.drainResolvedElements();
+        var messages = Log.stopCapture();
+        if (decoratorCache != null) {
+            var dependencyElements = new LinkedHashSet<>(dependencies);
+            decorators.forEach(decorator -> dependencyElements.add(decorator.getElement()));
+            dependencyElements.addAll(resolvedElements);
+            decoratorCache.store(cacheKey, dependencyElements, snapshots, messages);
+        }
     }
 
     /**
@@ -300,28 +571,189 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
      * {@link #valueDecorators} and writes output to file
      */
     private void writeDocumentation() {
-        var decorators = uniqueDecorators(this.propertiesDecorators, this.valueDecorators);
+        Collection<DecoratorSnapshot> decorators;
+        if (sourceFragments != null) {
+            decorators = mergeSourceFragments();
+        } else if (processorConfiguration.getAggregateFragments()) {
+            decorators = aggregateFragments();
+        } else {
+            decorators = uniqueDecorators(this.propertiesDecorators, this.valueDecorators);
+        }
 
         Log.instance().debug("Found objects for documentation:");
         Log.instance().debug("    " + this.propertiesDecorators.size() + " configuration attributes");
         Log.instance().debug("    " + this.valueDecorators.size() + " elements with @Value annotation");
 
-        var decoratorDocGenerator = new ElementDecoratorDocGenerator(processorConfiguration.getFormatter());
-
-        // generate description for all decorators (fills .getDescription() output)
-        Collection<DocumentedElement> documentedElements = decorators.stream()
-                .map(decoratorDocGenerator::generate)
-                .filter(Objects::nonNull)
-                .toList();
+        List<DecoratorSnapshot> snapshots = decorators.stream().filter(snapshot -> !snapshot.isHidden()).toList();
 
-        Log.instance().debug("In total " + documentedElements.size() + " values for documentation.");
+        Log.instance().debug("In total " + snapshots.size() + " values for documentation.");
+        statistics.count("properties_options", this.propertiesDecorators.size());
+        statistics.count("value_options", this.valueDecorators.size());
+        statistics.count("documented_options", snapshots.size());
 
-        documentedElements = sortDecorators(documentedElements);
+        var sortedSnapshots = statistics.measure(Phase.SORTING, () -> sortDecorators(snapshots));
 
-        // write file with documentation
         TemplateDocsGenerator docsGenerator = new TemplateDocsGenerator(USE_TEMPLATE_SQUARE_BRACKET_SYNTAX, processorConfiguration.getFormatter());
         docsGenerator.loadTemplate(processorConfiguration.getOutputFile(), processorConfiguration.getTemplatePath());
-        docsGenerator.generate(documentedElements);
+
+        if (processorConfiguration.getParallelism() > 1) {
+            // generate description for all decorators (fills .getDescription() output)
+            var documentedElements = statistics.measure(Phase.RENDERING, () -> generateDocumentation(sortedSnapshots));
+
+            // write file with documentation
+            statistics.measure(Phase.TEMPLATE_WRITE, () -> docsGenerator.generate(documentedElements));
+        } else {
+            // write file with documentation, descriptions are composed while the template iterates options
+            // (rendering is measured as a part of the template write)
+            statistics.measure(Phase.TEMPLATE_WRITE, () -> docsGenerator.generate(sortedSnapshots, decoratorDocGenerator::generate));
+        }
+    }
+
+    /**
+     * Writes snapshots of this module as a {@link DocumentationFragment} to the class output (when enabled)
+     */
+    private void writeFragment() {
+        if (!processorConfiguration.getWriteFragment()) {
+            return;
+        }
+
+        var resourceName = DocumentationFragment.resourceName(processorConfiguration.getShardIndex(), processorConfiguration.getShardCount());
+        new DocumentationFragment(this.propertiesDecorators, this.valueDecorators)
+                .write(processingEnv.getFiler(), resourceName, processorConfiguration.getFragmentFingerprint());
+    }
+
+    /**
+     * Writes Spring Boot configuration metadata of this module to the class output (when enabled),
+     * only options from {@code @ConfigurationProperties} classes are included
+     */
+    private void writeMetadata() {
+        if (!processorConfiguration.getWriteMetadata()) {
+            return;
+        }
+
+        var written = statistics.measure(Phase.TEMPLATE_WRITE, () -> new ConfigurationMetadataGenerator()
+                .write(processingEnv.getFiler(), this.propertiesDecorators));
+        statistics.count("metadata_properties", written);
+    }
+
+    /**
+     * Merges snapshots of this module with snapshots from fragments on the classpath,
+     * options from this module take precedence, properties take precedence over values
+     *
+     * @return unique snapshots of all modules
+     */
+    private Collection<DecoratorSnapshot> aggregateFragments() {
+        var fragments = DocumentationFragment.readAll(processingEnv.getFiler(), getClass().getClassLoader(),
+                processorConfiguration.getFragmentFiles(), processorConfiguration.getFragmentFingerprint());
+
+        var fragmentProperties = new ArrayList<DecoratorSnapshot>();
+        var fragmentValues = new ArrayList<DecoratorSnapshot>();
+        for (var fragment : fragments) {
+            fragmentProperties.addAll(fragment.properties());
+            fragmentValues.addAll(fragment.values());
+        }
+
+        Log.instance().info("Aggregating " + fragments.size() + " documentation fragments");
+        statistics.count("fragments", fragments.size());
+        statistics.count("fragment_options", fragmentProperties.size() + fragmentValues.size());
+
+        return uniqueDecorators(this.propertiesDecorators, fragmentProperties, this.valueDecorators, fragmentValues);
+    }
+
+    /**
+     * Stores snapshots of sources processed in this run to {@link #sourceFragments}
+     * and merges snapshots of all sources, properties take precedence over values
+     *
+     * @return unique snapshots of all sources
+     */
+    private Collection<DecoratorSnapshot> mergeSourceFragments() {
+        var sources = new LinkedHashSet<>(sourceProperties.keySet());
+        sources.addAll(sourceValues.keySet());
+        for (var source : sources) {
+            sourceFragments.put(source, new DocumentationFragment(
+                    sourceProperties.getOrDefault(source, List.of()),
+                    sourceValues.getOrDefault(source, List.of())));
+        }
+
+        var properties = new ArrayList<DecoratorSnapshot>();
+        var values = new ArrayList<DecoratorSnapshot>();
+        for (var fragment : sourceFragments.values()) {
+            properties.addAll(fragment.properties());
+            values.addAll(fragment.values());
+        }
+        statistics.count("source_fragments", sourceFragments.size());
+
+        return uniqueDecorators(properties, values);
+    }
+
+    /**
+     * Writes collected {@link #statistics} to the statistics file (when configured)
+     */
+    private void writeStatistics() {
+        if (processorConfiguration.getStatsFile() == null) {
+            return;
+        }
+
+        ProcessorStatistics.CacheStatistics cacheStatistics = null;
+        if (decoratorCache != null) {
+            cacheStatistics = new ProcessorStatistics.CacheStatistics(decoratorCache.getHits(), decoratorCache.getMisses());
+        }
+        statistics.write(new File(processorConfiguration.getStatsFile()), cacheStatistics);
+    }
+
+    /**
+     * Composes documentation for all snapshots with {@link #decoratorDocGenerator}.
+     * When parallelism is configured, snapshots are split into chunks rendered on a bounded thread pool,
+     * snapshots do not reference compiler trees, so no javac structures are accessed from worker threads.
+     *
+     * @param snapshots snapshots to document
+     * @return documented elements (without hidden ones) in the order of snapshots
+     */
+    private List<DocumentedElement> generateDocumentation(Collection<DecoratorSnapshot> snapshots) {
+        var parallelism = Math.min(processorConfiguration.getParallelism(), snapshots.size());
+        if (parallelism <= 1) {
+            return snapshots.stream()
+                    .map(decoratorDocGenerator::generate)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        var input = List.copyOf(snapshots);
+        var chunkSize = (input.size() + parallelism - 1) / parallelism;
+        var tasks = new ArrayList<Callable<List<DocumentedElement>>>();
+        for (int start = 0; start < input.size(); start += chunkSize) {
+            var chunk = input.subList(start, Math.min(start + chunkSize, input.size()));
+            tasks.add(() -> chunk.stream()
+                    .map(decoratorDocGenerator::generate)
+                    .filter(Objects::nonNull)
+                    .toList());
+        }
+
+        var threadCounter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            var thread = new Thread(runnable, "configurationdoc-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            var result = new ArrayList<DocumentedElement>(input.size());
+            // futures are returned in the order of tasks, keeping the output deterministic
+            for (var future : executor.invokeAll(tasks)) {
+                result.addAll(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating documentation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to generate documentation", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
@@ -332,31 +764,31 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
      * @return unique decorators
      */
     @SafeVarargs
-    private Collection<ElementDecorator> uniqueDecorators(Collection<ElementDecorator>... decoratorCollections) {
-        var map = new HashMap<String, ElementDecorator>();
+    private Collection<DecoratorSnapshot> uniqueDecorators(Collection<DecoratorSnapshot>... decoratorCollections) {
+        var map = new HashMap<String, DecoratorSnapshot>();
 
         Arrays.stream(decoratorCollections).flatMap(Collection::stream).forEach(decorator -> {
 
-            var cur = map.get(decorator.getConfigOptionName());
-            if (cur != null && cur.getDocTree().isPresent()) {
+            var cur = map.get(decorator.configOptionName());
+            if (cur != null && cur.doc() != null) {
                 // if there already exists a decorator with the same config option name
                 // and with documentation
 
                 // if comments should be merged and there is a doc tree (comment)
-                if (decorator.getDocTree().isPresent()) {
+                if (decorator.doc() != null) {
                     if (processorConfiguration.getMergeComments()) {
-                        cur.addDocTree(decorator.getDocTree().get());
+                        map.put(decorator.configOptionName(), cur.withAdditionalDoc(decorator.doc()));
                     } else {
                         Log.instance()
-                                .warn("Skipping secondary comment for " + decorator.getConfigOptionName() + " (on element: "
-                                        + decorator.getElement().getSimpleName() + "); comment merging is disabled");
+                                .warn("Skipping secondary comment for " + decorator.configOptionName() + " (on element: "
+                                        + decorator.elementName() + "); comment merging is disabled");
                     }
                 }
 
                 return;
             }
 
-            map.put(decorator.getConfigOptionName(), decorator);
+            map.put(decorator.configOptionName(), decorator);
         });
 
         return map.values();
@@ -365,22 +797,22 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
     /**
      * Sorts decorators according to annotation processor configuration
      */
-    private Collection<DocumentedElement> sortDecorators(Collection<DocumentedElement> decorators) {
+    private List<DecoratorSnapshot> sortDecorators(List<DecoratorSnapshot> decorators) {
 
         // create default comparator
         // assuming all elements are equal
-        Comparator<DocumentedElement> decoratorComparator = (a, b) -> 0;
+        Comparator<DecoratorSnapshot> decoratorComparator = (a, b) -> 0;
 
         var order = processorConfiguration.getOrder();
 
         // Lexicographical order A-Z
         if (order == Order.ASC) {
-            decoratorComparator = Comparator.comparing(DocumentedElement::getName);
+            decoratorComparator = Comparator.comparing(DecoratorSnapshot::configOptionName);
         }
 
         // Lexicographical order Z-A
         if (order == Order.DESC) {
-            decoratorComparator = Comparator.comparing(DocumentedElement::getName).reversed();
+            decoratorComparator = Comparator.comparing(DecoratorSnapshot::configOptionName).reversed();
         }
 
         // first prepend required and then compare with lexicographical comparator
@@ -388,11 +820,11 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
             var nextComp = decoratorComparator;
             decoratorComparator = (a, b) -> {
                 // if both are in the same "group", then use next comparator
-                if (a.isRequired() == b.isRequired()) {
+                if (a.required() == b.required()) {
                     return nextComp.compare(a, b);
                 }
                 // prepend required ones
-                return a.isRequired() ? -1 : 1;
+                return a.required() ? -1 : 1;
             };
         }
 
@@ -401,11 +833,11 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
             var nextComp = decoratorComparator;
             decoratorComparator = (a, b) -> {
                 // if both are in the same "group", then use next comparator
-                if (a.isDeprecated() == b.isDeprecated()) {
+                if (a.deprecated() == b.deprecated()) {
                     return nextComp.compare(a, b);
                 }
                 // prepend required ones
-                return a.isDeprecated() ? 1 : -1;
+                return a.deprecated() ? 1 : -1;
             };
         }
 
@@ -431,4 +863,23 @@ public class ConfigurationDocProcessor extends AbstractProcessor {
                 .findFirst()
                 .orElse(SourceVersion.RELEASE_17);
     }
+
+    /**
+     * Tree paths of annotated elements in the order of their discovery.
+     * <p>
+     * {@link Trees#getPath(Element)} creates a new path on each call,
+     * so duplicates are detected by the identity of the tree the path leads to.
+     */
+    private static class WatchedPaths {
+
+        private final List<TreePath> paths = new ArrayList<>();
+
+        private final Set<Tree> leaves = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private void add(TreePath path) {
+            if (path != null && leaves.add(path.getLeaf())) {
+                paths.add(path);
+            }
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package cz.lukaskabc.cvut.processor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializable result of documenting a single {@link ElementDecorator}.
+ * <p>
+ * Holds Javadoc comments already rendered with the selected formatter,
+ * so it does not reference any compiler trees and can be stored between processor runs.
+ *
+ * @param configOptionName name of the configuration option
+ * @param elementName      simple name of the decorated element
+ * @param type             qualified name of the element type (see {@link ElementDecorator#getTypeName()})
+ * @param propertyName     canonical Spring Boot property name or null when the option is not a configuration property
+ * @param doc              rendered main comment of the element or null when there is no comment
+ * @param description      plain text of the main comment (without block tags and formatting) or null when there is no comment
+ * @param additionalDocs   rendered additional comments (from upper contexts, constructor parameters etc.)
+ * @param defaultValue     resolved default value or null
+ * @param constraints      rendered JSR 303 constraints
+ * @param required         whether the option is required
+ * @param deprecated       whether the option is deprecated
+ */
+public record DecoratorSnapshot(String configOptionName,
+                                String elementName,
+                                String type,
+                                String propertyName,
+                                DocFragment doc,
+                                String description,
+                                List<DocFragment> additionalDocs,
+                                String defaultValue,
+                                String constraints,
+                                boolean required,
+                                boolean deprecated) implements Serializable {
+
+    public DecoratorSnapshot {
+        additionalDocs = List.copyOf(additionalDocs);
+    }
+
+    /**
+     * @return new snapshot with the fragment appended to additional docs (when not yet present)
+     */
+    public DecoratorSnapshot withAdditionalDoc(DocFragment fragment) {
+        if (additionalDocs.contains(fragment)) {
+            return this;
+        }
+
+        var docs = new ArrayList<>(additionalDocs);
+        docs.add(fragment);
+        return new DecoratorSnapshot(configOptionName, elementName, type, propertyName, doc, description, docs, defaultValue, constraints, required, deprecated);
+    }
+
+    /**
+     * @return true when the main comment or any of the additional comments contains @hidden tag
+     */
+    public boolean isHidden() {
+        return (doc != null && doc.hidden()) || additionalDocs.stream().anyMatch(DocFragment::hidden);
+    }
+
+    /**
+     * Javadoc comment rendered with a formatter
+     *
+     * @param text   rendered comment
+     * @param hidden whether the comment contains @hidden tag
+     */
+    public record DocFragment(String text, boolean hidden) implements Serializable {
+    }
+}
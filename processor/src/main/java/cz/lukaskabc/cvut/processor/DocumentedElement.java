@@ -6,6 +6,11 @@ package cz.lukaskabc.cvut.processor;
  */
 public class DocumentedElement {
 
+    private final String name;
+
+    /**
+     * Decorator of the documented element, null when documentation is composed from {@link DecoratorSnapshot}
+     */
     private final ElementDecorator decorator;
 
     private final StringBuilder description = new StringBuilder();
@@ -19,9 +24,15 @@ public class DocumentedElement {
     private boolean isHidden = false;
 
     public DocumentedElement(ElementDecorator decorator) {
+        this.name = decorator.getConfigOptionName();
         this.decorator = decorator;
     }
 
+    public DocumentedElement(DecoratorSnapshot snapshot) {
+        this.name = snapshot.configOptionName();
+        this.decorator = null;
+    }
+
     public boolean isDeprecated() {
         return isDeprecated;
     }
@@ -60,7 +71,7 @@ public class DocumentedElement {
     }
 
     public String getName() {
-        return decorator.getConfigOptionName();
+        return name;
     }
 
     public boolean isHidden() {
@@ -8,9 +8,15 @@ import com.sun.source.util.DocTrees;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,6 +35,11 @@ public class ElementDecorator {
 
     private String defaultValue = null;
 
+    /**
+     * Canonical Spring Boot property name, null when the option is not bound from configuration properties
+     */
+    private String propertyName = null;
+
     public ElementDecorator(Element element, String configOptionName, EnvironmentUtils envUtils, List<DocTree> additionalDocTrees) {
         this.element = element;
         this.configOptionName = NameFormatter.combine("", configOptionName); // ensures correct format
@@ -53,6 +64,23 @@ public class ElementDecorator {
         this.docTree = docTree;
     }
 
+    /**
+     * @param prefix            name prefix to prepend to the config option name
+     * @param propertyPrefix    prefix to prepend to the property name
+     * @param precedingDocTrees docs added before additional docs of this decorator
+     * @return copy of this decorator with the prefixed name
+     */
+    public ElementDecorator withPrefix(String prefix, String propertyPrefix, List<DocTree> precedingDocTrees) {
+        var decorator = new ElementDecorator(element, NameFormatter.combine(prefix, configOptionName), docTree);
+        decorator.additionalDocTrees.addAll(precedingDocTrees);
+        decorator.additionalDocTrees.addAll(additionalDocTrees);
+        decorator.defaultValue = defaultValue;
+        if (propertyName != null) {
+            decorator.propertyName = NameFormatter.joinProperty(propertyPrefix, propertyName);
+        }
+        return decorator;
+    }
+
     public static ParamTree getParamDocTagTree(VariableElement parameter, DocTrees docTrees) {
         assert parameter.getKind() == ElementKind.PARAMETER;
         var tree = docTrees.getDocCommentTree(parameter.getEnclosingElement());
@@ -105,6 +133,51 @@ public class ElementDecorator {
         return configOptionName;
     }
 
+    /**
+     * @return qualified name of the element type with type arguments and without type annotations,
+     * names of nested classes are separated with {@code $}
+     */
+    public String getTypeName() {
+        return getTypeName(element.asType());
+    }
+
+    private static String getTypeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (type instanceof ArrayType arrayType) {
+            return getTypeName(arrayType.getComponentType()) + "[]";
+        }
+        if (type instanceof DeclaredType declaredType) {
+            var name = new StringBuilder(getBinaryName((TypeElement) declaredType.asElement()));
+            if (!declaredType.getTypeArguments().isEmpty()) {
+                name.append('<');
+                for (int i = 0; i < declaredType.getTypeArguments().size(); i++) {
+                    name.append(i == 0 ? "" : ",").append(getTypeName(declaredType.getTypeArguments().get(i)));
+                }
+                name.append('>');
+            }
+            return name.toString();
+        }
+        if (type instanceof WildcardType wildcardType) {
+            if (wildcardType.getExtendsBound() != null) {
+                return "? extends " + getTypeName(wildcardType.getExtendsBound());
+            }
+            if (wildcardType.getSuperBound() != null) {
+                return "? super " + getTypeName(wildcardType.getSuperBound());
+            }
+            return "?";
+        }
+        return type.toString();
+    }
+
+    private static String getBinaryName(TypeElement type) {
+        if (type.getEnclosingElement() instanceof TypeElement enclosing) {
+            return getBinaryName(enclosing) + "$" + type.getSimpleName();
+        }
+        return type.getQualifiedName().toString();
+    }
+
     private boolean isRecordComponent() {
         return element.getEnclosingElement().getKind() == ElementKind.RECORD;
     }
@@ -116,4 +189,12 @@ public class ElementDecorator {
     public void setDefaultValue(String defaultValue) {
         this.defaultValue = defaultValue;
     }
+
+    public Optional<String> getPropertyName() {
+        return Optional.ofNullable(propertyName);
+    }
+
+    public void setPropertyName(String propertyName) {
+        this.propertyName = propertyName;
+    }
 }
@@ -6,19 +6,52 @@ import cz.lukaskabc.cvut.processor.exception.PrototypeException;
 import javax.annotation.processing.Messager;
 import javax.lang.model.element.Element;
 import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Logger using {@link Messager} for output
  */
 public class Log {
 
+    /**
+     * Maximum number of source files kept in {@link #sourceContents}
+     */
+    private static final int MAX_CACHED_SOURCES = 32;
+
+    /**
+     * Decoded contents of recently used source files (the least recently used file is evicted first),
+     * mapped by the file instead of the compilation unit, so the compiler trees are not retained
+     */
+    private static final Map<JavaFileObject, CharSequence> sourceContents = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<JavaFileObject, CharSequence> eldest) {
+            return size() > MAX_CACHED_SOURCES;
+        }
+    };
+
+    /**
+     * Number of printed messages by their kind
+     */
+    private static final Map<Diagnostic.Kind, Integer> messageCounts = new EnumMap<>(Diagnostic.Kind.class);
+
     private static LogInstance plainContext;
 
     private static Messager messager;
 
     private static EnvironmentUtils envUtils;
 
+    /**
+     * Warnings and errors printed since {@link #startCapture()}, null when not capturing
+     */
+    private static List<Message> capturedMessages = null;
+
     private Log() {
     }
 
@@ -26,6 +59,79 @@ public class Log {
         Log.messager = envUtils.processingEnvironment().getMessager();
         Log.plainContext = new LogInstance(null);
         Log.envUtils = envUtils;
+        synchronized (sourceContents) {
+            sourceContents.clear();
+        }
+        synchronized (messageCounts) {
+            messageCounts.clear();
+        }
+        synchronized (Log.class) {
+            capturedMessages = null;
+        }
+    }
+
+    /**
+     * Starts capturing printed warnings and errors (e.g. for caching them with the results of processing)
+     */
+    public static synchronized void startCapture() {
+        capturedMessages = new ArrayList<>();
+    }
+
+    /**
+     * Stops capturing messages
+     *
+     * @return warnings and errors printed since {@link #startCapture()}, empty list when not capturing
+     */
+    public static synchronized List<Message> stopCapture() {
+        var messages = capturedMessages == null ? List.<Message>of() : List.copyOf(capturedMessages);
+        capturedMessages = null;
+        return messages;
+    }
+
+    /**
+     * Prints the messages again (e.g. messages reported for results loaded from a cache)
+     */
+    public static void replay(List<Message> messages) {
+        if (messager == null) {
+            return;
+        }
+        for (var message : messages) {
+            synchronized (messageCounts) {
+                messageCounts.merge(message.kind(), 1, Integer::sum);
+            }
+            messager.printMessage(message.kind(), message.text());
+        }
+    }
+
+    private static synchronized void capture(Diagnostic.Kind kind, String text) {
+        if (capturedMessages != null && (kind == Diagnostic.Kind.ERROR || kind == Diagnostic.Kind.WARNING || kind == Diagnostic.Kind.MANDATORY_WARNING)) {
+            capturedMessages.add(new Message(kind, text));
+        }
+    }
+
+    /**
+     * @return number of messages printed since the initialization by their kind
+     */
+    public static Map<Diagnostic.Kind, Integer> getMessageCounts() {
+        synchronized (messageCounts) {
+            return new EnumMap<>(messageCounts);
+        }
+    }
+
+    /**
+     * @return decoded content of the compilation unit source file
+     * @throws IOException when the source file cannot be read
+     */
+    private static CharSequence getSourceContent(CompilationUnitTree compilationUnit) throws IOException {
+        synchronized (sourceContents) {
+            var sourceFile = compilationUnit.getSourceFile();
+            var content = sourceContents.get(sourceFile);
+            if (content == null) {
+                content = sourceFile.getCharContent(true);
+                sourceContents.put(sourceFile, content);
+            }
+            return content;
+        }
     }
 
     public static LogInstance instance() {
@@ -48,24 +154,25 @@ public class Log {
          * @return line of source code containing given position, null if error occurred
          */
         public static String getLineFromPositionContaining(CompilationUnitTree compilationUnit, long pos, String searchFor) {
-            var lineNumber = compilationUnit.getLineMap().getLineNumber(pos);
-            var lineStartPos = compilationUnit.getLineMap().getStartPosition(lineNumber);
-            var nextLinePos = compilationUnit.getLineMap().getStartPosition(lineNumber + 1);
-            var lineLength = nextLinePos - lineStartPos;
+            var lineMap = compilationUnit.getLineMap();
+            var lineStartPos = (int) lineMap.getStartPosition(lineMap.getLineNumber(pos));
 
             String line = "";
 
-            try (var fileReader = compilationUnit.getSourceFile().openReader(true)) {
-                fileReader.skip(lineStartPos);
+            try {
+                var content = getSourceContent(compilationUnit);
                 while (!line.contains(searchFor)) {
-                    lineStartPos = compilationUnit.getLineMap().getStartPosition(lineNumber);
-                    nextLinePos = compilationUnit.getLineMap().getStartPosition(lineNumber + 1);
-                    lineLength = nextLinePos - lineStartPos;
-                    var buffer = new char[(int) lineLength];
-                    var chars = fileReader.read(buffer);
-                    if (chars < 1) return null;
-                    line = new String(buffer);
-                    lineNumber++;
+                    if (lineStartPos < 0 || lineStartPos >= content.length()) return null;
+                    var lineEndPos = lineStartPos;
+                    // lines are terminated with \n, \r or \r\n (same as in the javac line map)
+                    while (lineEndPos < content.length() && content.charAt(lineEndPos) != '\n' && content.charAt(lineEndPos) != '\r') {
+                        lineEndPos++;
+                    }
+                    line = content.subSequence(lineStartPos, lineEndPos).toString();
+                    lineStartPos = lineEndPos + 1;
+                    if (lineEndPos + 1 < content.length() && content.charAt(lineEndPos) == '\r' && content.charAt(lineEndPos + 1) == '\n') {
+                        lineStartPos++;
+                    }
                 }
             } catch (IOException e) {
                 // failed to read file
@@ -82,12 +189,14 @@ public class Log {
             if (messager == null || kind == null || message == null)
                 return;
 
-            if (element != null) {
-                messager.printMessage(kind, message + "\n" + getElementDetail(element));
-            } else {
-                messager.printMessage(kind, message.toString());
+            synchronized (messageCounts) {
+                messageCounts.merge(kind, 1, Integer::sum);
             }
 
+            var text = element != null ? message + "\n" + getElementDetail(element) : message.toString();
+            messager.printMessage(kind, text);
+            capture(kind, text);
+
             if (t != null) {
                 messager.printMessage(Diagnostic.Kind.ERROR, t.getMessage());
                 t.printStackTrace(System.err);
@@ -223,4 +332,13 @@ public class Log {
             log(Diagnostic.Kind.NOTE, message, t);
         }
     }
+
+    /**
+     * Printed message with the element detail
+     *
+     * @param kind kind of the message
+     * @param text printed text
+     */
+    public record Message(Diagnostic.Kind kind, String text) implements Serializable {
+    }
 }
@@ -1,8 +1,9 @@
 package cz.lukaskabc.cvut.processor;
 
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Helper class providing methods for name formatting
@@ -12,22 +13,134 @@ public class NameFormatter {
     private NameFormatter() {
     }
 
+    /**
+     * Languages with context dependent upper case mapping (see {@link String#toUpperCase(Locale)})
+     */
+    private static final Set<String> CONTEXT_SENSITIVE_LANGUAGES = Set.of("tr", "az", "lt");
+
     /**
      * @param names
      * @return join names with underscore, protecting from duplicated underscores
      * @see <a href="https://docs.spring.io/spring-boot/docs/3.2.1/reference/htmlsingle/#features.external-config.typesafe-configuration-properties.relaxed-binding.environment-variables">Spring Boot binding from ENV</a>
      */
     public static String combine(String... names) {
-        return Arrays.stream(names)
-                .map(s ->
-                        s.trim()
-                                .replaceAll("\\s+", "") // remove spaces
-                                .replace("-", "") // remove hyphens
-                                .replace(".", "_") // replace dots with underscores
-                                .replaceAll("(^_+)|(_+$)", "") // trim underscores
-                                .toUpperCase()
-                ).filter(s -> !s.isEmpty())
-                .collect(Collectors.joining("_"));
+        String single = null;
+        StringBuilder builder = null;
+        for (var name : names) {
+            var converted = convert(name);
+            if (converted.isEmpty()) {
+                continue;
+            }
+            if (single == null) {
+                single = converted;
+            } else {
+                if (builder == null) {
+                    builder = new StringBuilder(single.length() + converted.length() + 1).append(single);
+                }
+                builder.append('_').append(converted);
+            }
+        }
+        if (builder != null) {
+            return builder.toString();
+        }
+        return single == null ? "" : single;
+    }
+
+    /**
+     * Converts a single name to the environment variable format.
+     * Equivalent to {@code name.trim().replaceAll("\\s+", "").replace("-", "").replace(".", "_").replaceAll("(^_+)|(_+$)", "").toUpperCase()}.
+     * <p>
+     * Prefixes are mostly results of previous {@link #combine(String...) combinations}
+     * shared by all sibling options, these are recognized as already converted and returned without copying.
+     */
+    private static String convert(String name) {
+        if (isConverted(name)) {
+            return name;
+        }
+
+        int start = 0;
+        int end = name.length();
+        // String#trim
+        while (start < end && name.charAt(start) <= ' ') {
+            start++;
+        }
+        while (start < end && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        final boolean contextSensitive = CONTEXT_SENSITIVE_LANGUAGES.contains(Locale.getDefault().getLanguage());
+        boolean ascii = true;
+        var builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            final char c = name.charAt(i);
+            if (isWhitespace(c) || c == '-') {
+                continue;
+            }
+            if (c == '.') {
+                builder.append('_');
+            } else if (c >= 'a' && c <= 'z' && !contextSensitive) {
+                builder.append((char) (c - ('a' - 'A')));
+            } else {
+                ascii &= c < 128;
+                builder.append(c);
+            }
+        }
+
+        // trim underscores, regex $ matches also before a final line terminator
+        int first = 0;
+        while (first < builder.length() && builder.charAt(first) == '_') {
+            first++;
+        }
+        int tailEnd = builder.length();
+        if (tailEnd > first && isUnicodeLineTerminator(builder.charAt(tailEnd - 1))) {
+            tailEnd--;
+        }
+        int tailStart = tailEnd;
+        while (tailStart > first && builder.charAt(tailStart - 1) == '_') {
+            tailStart--;
+        }
+        builder.delete(tailStart, tailEnd);
+
+        var result = builder.substring(first);
+        if (!ascii || contextSensitive) {
+            return result.toUpperCase();
+        }
+        return result;
+    }
+
+    /**
+     * @return true when the {@link #convert(String) conversion} would not change the name
+     */
+    private static boolean isConverted(String name) {
+        final int length = name.length();
+        if (length == 0) {
+            return true;
+        }
+        if (name.charAt(0) == '_' || name.charAt(length - 1) == '_') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = name.charAt(i);
+            // the upper case of printable ASCII characters other than lower case letters is the same in all locales
+            if (c <= ' ' || c >= 127 || c == '-' || c == '.' || (c >= 'a' && c <= 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true for characters matched by regex {@code \s}
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return true for line terminators which are not matched by regex {@code \s}
+     */
+    private static boolean isUnicodeLineTerminator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     public static String splitUnderscoreOnCapital(String string) {
@@ -49,6 +162,42 @@ public class NameFormatter {
         return builder.toString().toUpperCase();
     }
 
+    /**
+     * Converts the name to the canonical (kebab-case) form of Spring Boot property names,
+     * {@code multiWordName} becomes {@code multi-word-name}
+     *
+     * @see <a href="https://docs.spring.io/spring-boot/docs/3.2.1/reference/htmlsingle/#features.external-config.typesafe-configuration-properties.relaxed-binding">Spring Boot relaxed binding</a>
+     */
+    public static String toDashedCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        char previous = 0;
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '-' || c == '_') {
+                builder.append('-');
+            } else if (Character.isUpperCase(c) && i > 0 && previous != '-' && previous != '_') {
+                builder.append('-').append(c);
+            } else {
+                builder.append(c);
+            }
+            previous = c;
+        }
+        return builder.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return property names joined with a dot, empty names are skipped
+     */
+    public static String joinProperty(String prefix, String name) {
+        if (prefix.isEmpty()) {
+            return name;
+        }
+        if (name.isEmpty()) {
+            return prefix;
+        }
+        return prefix + "." + name;
+    }
+
     /**
      * @param strings
      * @return First non-empty parameter or empty string
@@ -6,6 +6,7 @@ import cz.lukaskabc.cvut.processor.formatter.HTMLFormatter;
 import cz.lukaskabc.cvut.processor.formatter.MDFormatter;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -93,9 +94,19 @@ public class ProcessorConfiguration {
     private boolean noHtmlInMarkdown = false;
 
     /**
-     * User defined package containing configuration classes
+     * User defined packages containing configuration classes, empty when all packages are documented
      */
-    private String configurationPackage = "";
+    private List<String> configurationPackages = List.of();
+
+    /**
+     * Index of the shard documented by this processor run
+     */
+    private int shardIndex = 0;
+
+    /**
+     * Number of shards the configuration classes are split into, 1 when sharding is disabled
+     */
+    private int shardCount = 1;
 
     /**
      * Canonical prefix for all generated environment variables
@@ -108,15 +119,61 @@ public class ProcessorConfiguration {
      */
     private boolean splitOptionsOnCapital = false;
 
+    /**
+     * User defined path to the file caching scanned elements between runs,
+     * null when caching is disabled
+     */
+    private String cacheFile = null;
+
+    /**
+     * Number of threads used for rendering the documentation, 1 renders on the processor thread
+     */
+    private int parallelism = 1;
+
+    /**
+     * Whether compiled classes from outside the JDK may be loaded
+     * for resolving default values of static fields which are not compile time constants
+     */
+    private boolean loadClasses = true;
+
+    /**
+     * User defined path to the file with processing statistics,
+     * null when statistics are not written
+     */
+    private String statsFile = null;
+
+    /**
+     * Whether the documentation fragment of this module should be written to the class output
+     */
+    private boolean writeFragment = false;
+
+    /**
+     * Whether documentation fragments from the classpath should be aggregated into the documentation
+     */
+    private boolean aggregateFragments = false;
+
+    /**
+     * Whether Spring Boot configuration metadata should be written to the class output
+     */
+    private boolean writeMetadata = false;
+
+    /**
+     * Paths of documentation fragment files aggregated in addition to fragments on the classpath
+     */
+    private List<String> fragmentFiles = List.of();
+
     /**
      * Options supported by this annotation processor, processed in defined order
      */
     public final List<ProcessorOption> options = List.of(
             new AbstractProcessorOption("configuration_package",
-                    "Package containing configuration classes", "<package>") {
+                    "Packages containing configuration classes (separated with comma)", "<package[,package...]>") {
                 @Override
                 public boolean processImpl(String parameter) {
-                    configurationPackage = parameter;
+                    configurationPackages = Arrays.stream(parameter.split(","))
+                            .map(String::trim)
+                            .filter(pckg -> !pckg.isEmpty())
+                            .toList();
                     return true;
                 }
             }, new AbstractProcessorOption("output_file", "Output file (filename without extension)", "<file>") {
@@ -222,6 +279,76 @@ public class ProcessorConfiguration {
                     splitOptionsOnCapital = true;
                     return true;
                 }
+            }, new AbstractProcessorOption("cache_file", "Path to the file caching scanned configuration classes between runs", "<file>") {
+                @Override
+                protected boolean processImpl(String parameterValue) {
+                    cacheFile = parameterValue;
+                    return true;
+                }
+            }, new AbstractProcessorOption("parallelism", "Number of threads used for rendering the documentation", "<threads>") {
+                @Override
+                protected boolean processImpl(String parameterValue) {
+                    try {
+                        parallelism = Integer.parseInt(parameterValue);
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                    return parallelism > 0;
+                }
+            }, new AbstractProcessorOption("no_class_loading", "Disables loading compiled classes to resolve default values from their static fields", null) {
+                @Override
+                protected boolean processImpl(String ignored) {
+                    loadClasses = false;
+                    return true;
+                }
+            }, new AbstractProcessorOption("stats_file", "Path to the JSON file with processing statistics", "<file>") {
+                @Override
+                protected boolean processImpl(String parameterValue) {
+                    statsFile = parameterValue;
+                    return true;
+                }
+            }, new AbstractProcessorOption("fragment", "Writes documentation fragment of the module to the class output", null) {
+                @Override
+                protected boolean processImpl(String ignored) {
+                    writeFragment = true;
+                    return true;
+                }
+            }, new AbstractProcessorOption("aggregate", "Aggregates documentation fragments from the classpath", null) {
+                @Override
+                protected boolean processImpl(String ignored) {
+                    aggregateFragments = true;
+                    return true;
+                }
+            }, new AbstractProcessorOption("metadata", "Writes Spring Boot configuration metadata to the class output", null) {
+                @Override
+                protected boolean processImpl(String ignored) {
+                    writeMetadata = true;
+                    return true;
+                }
+            }, new AbstractProcessorOption("shard", "Documents only classes in the shard (by the hash of the class name)", "<index>/<count>") {
+                @Override
+                protected boolean processImpl(String parameterValue) {
+                    var parts = parameterValue.trim().split("/");
+                    if (parts.length != 2) {
+                        return false;
+                    }
+                    try {
+                        shardIndex = Integer.parseInt(parts[0].trim());
+                        shardCount = Integer.parseInt(parts[1].trim());
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                    return shardCount > 0 && shardIndex >= 0 && shardIndex < shardCount;
+                }
+            }, new AbstractProcessorOption("fragment_files", "Documentation fragment files to aggregate (separated with the path separator)", "<file[" + File.pathSeparator + "file...]>") {
+                @Override
+                protected boolean processImpl(String parameterValue) {
+                    fragmentFiles = Arrays.stream(parameterValue.split(File.pathSeparator))
+                            .filter(path -> !path.isBlank())
+                            .toList();
+                    aggregateFragments = true;
+                    return true;
+                }
             });
 
     public void processSystemProperties() {
@@ -294,6 +421,17 @@ public class ProcessorConfiguration {
             Log.instance().warn("HTML format is selected, ignoring no_html option");
         }
 
+        if (shardCount > 1 && !writeFragment) {
+            Log.instance().warn("Shard is specified without the fragment option, options of the shard will not be written");
+        }
+        if (shardCount > 1 && writeMetadata) {
+            Log.instance().warn("Metadata are not written by shards, ignoring metadata option");
+        }
+        if (shardCount > 1 && cacheFile != null) {
+            // the cache keeps only entries used in the current run, shards sharing one file would drop entries of each other
+            cacheFile = cacheFile + "-shard-" + shardIndex + "-of-" + shardCount;
+        }
+
         if (outputFile == null) {
             Log.instance().warn("Output file not specified, using default: " + DEFAULT_OUTPUT_FILE);
             outputFile = DEFAULT_OUTPUT_FILE + "." + formatter.getFileExtension();
@@ -333,6 +471,30 @@ public class ProcessorConfiguration {
             }
         }
 
+        if (cacheFile != null) {
+            file = new File(cacheFile);
+            if (file.exists() && !file.isFile()) {
+                throw new IllegalArgumentException("Specified cache file is not a file: " + file.getAbsolutePath());
+            }
+        }
+
+        if (statsFile != null) {
+            file = new File(statsFile);
+            if (file.exists() && !file.isFile()) {
+                throw new IllegalArgumentException("Specified statistics file is not a file: " + file.getAbsolutePath());
+            }
+        }
+
+        for (var fragmentFile : fragmentFiles) {
+            file = new File(fragmentFile);
+            if (!file.isFile()) {
+                throw new IllegalArgumentException("Specified fragment file does not exist or is not a file: " + file.getAbsolutePath());
+            }
+            if (!file.canRead()) {
+                throw new IllegalArgumentException("Specified fragment file is not readable: " + file.getAbsolutePath());
+            }
+        }
+
         return true;
     }
 
@@ -372,14 +534,86 @@ public class ProcessorConfiguration {
         return splitOptionsOnCapital;
     }
 
-    public String getConfigurationPackage() {
-        return configurationPackage;
+    /**
+     * @return packages containing configuration classes, empty when all packages are documented
+     */
+    public List<String> getConfigurationPackages() {
+        return configurationPackages;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @param qualifiedName qualified name of the top level class
+     * @return true when the class belongs to the documented shard
+     */
+    public boolean isInShard(String qualifiedName) {
+        return shardCount == 1 || Math.floorMod(qualifiedName.hashCode(), shardCount) == shardIndex;
+    }
+
+    public List<String> getFragmentFiles() {
+        return fragmentFiles;
     }
 
     public String getEnvPrefix() {
         return envPrefix;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean getLoadClasses() {
+        return loadClasses;
+    }
+
+    public String getCacheFile() {
+        return cacheFile;
+    }
+
+    public String getStatsFile() {
+        return statsFile;
+    }
+
+    public boolean getWriteFragment() {
+        return writeFragment;
+    }
+
+    public boolean getAggregateFragments() {
+        return aggregateFragments;
+    }
+
+    public boolean getWriteMetadata() {
+        return writeMetadata;
+    }
+
+    /**
+     * @return string identifying configuration options which affect scanned elements and their rendered comments
+     */
+    public String getCacheFingerprint() {
+        return String.join(";",
+                getFragmentFingerprint(),
+                String.valueOf(loadClasses));
+    }
+
+    /**
+     * @return string identifying configuration options which affect option names and rendered comments,
+     * fragments can be aggregated only with the same fingerprint
+     */
+    public String getFragmentFingerprint() {
+        return String.join(";",
+                formatter.getClass().getName(),
+                String.valueOf(noHtmlInMarkdown),
+                envPrefix,
+                String.valueOf(splitOptionsOnCapital));
+    }
+
     public enum Order {
 
         /**
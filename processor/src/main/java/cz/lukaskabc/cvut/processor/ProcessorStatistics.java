@@ -0,0 +1,190 @@
+package cz.lukaskabc.cvut.processor;
+
+import javax.tools.Diagnostic;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collects wall time and allocation counters of individual processing phases
+ * and writes them as a JSON report.
+ * <p>
+ * Allocations are measured only for the thread executing the phase
+ * (allocations of rendering worker threads are not included).
+ */
+public class ProcessorStatistics {
+
+    /**
+     * Phases of the processing measured separately
+     */
+    public enum Phase {
+        ELEMENT_WATCHING,
+        PROPERTIES_SCAN,
+        VALUE_SCAN,
+        DEFAULT_VALUES,
+        RENDERING,
+        SORTING,
+        TEMPLATE_WRITE
+    }
+
+    private final Map<Phase, PhaseStatistics> phases = new EnumMap<>(Phase.class);
+
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    /**
+     * Thread bean supporting allocation measurement, null when not supported by the JVM
+     */
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    public ProcessorStatistics() {
+        com.sun.management.ThreadMXBean bean = null;
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                    && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                bean = threadBean;
+            }
+        } catch (UnsupportedOperationException | LinkageError ignored) {
+            // allocation will not be measured
+        }
+        this.allocationBean = bean;
+
+        for (var phase : Phase.values()) {
+            phases.put(phase, new PhaseStatistics());
+        }
+    }
+
+    /**
+     * Runs the action as a part of the phase (the measurement ends even when the action throws).
+     * Measurements of the same phase are accumulated, phases should not be nested.
+     */
+    public void measure(Phase phase, Runnable action) {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action as a part of the phase (the measurement ends even when the action throws).
+     * Measurements of the same phase are accumulated, phases should not be nested.
+     * <pre>{@code
+     * snapshots = statistics.measure(Phase.SORTING, () -> sort(snapshots));
+     * }</pre>
+     *
+     * @return result of the action
+     */
+    public <T> T measure(Phase phase, Supplier<T> action) {
+        var statistics = phases.get(phase);
+        var startNanos = System.nanoTime();
+        var startAllocatedBytes = allocatedBytes();
+        try {
+            return action.get();
+        } finally {
+            statistics.invocations++;
+            statistics.wallTimeNanos += System.nanoTime() - startNanos;
+            statistics.allocatedBytes += allocatedBytes() - startAllocatedBytes;
+        }
+    }
+
+    /**
+     * Adds the value to the counter with the name
+     */
+    public void count(String counter, long value) {
+        counters.merge(counter, value, Long::sum);
+    }
+
+    /**
+     * Writes the report with collected statistics to the file
+     *
+     * @param file  target file
+     * @param cache cache statistics, null when caching is disabled
+     */
+    public void write(File file, CacheStatistics cache) {
+        var json = toJson(cache, Log.getMessageCounts());
+        try {
+            var parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            Files.writeString(file.toPath(), json, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Log.instance().warn("Failed to write statistics file " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private String toJson(CacheStatistics cache, Map<Diagnostic.Kind, Integer> messages) {
+        var json = new StringBuilder("{\n");
+
+        json.append("  \"phases\": {");
+        var first = true;
+        for (var entry : phases.entrySet()) {
+            var phase = entry.getValue();
+            json.append(first ? "\n" : ",\n")
+                    .append("    \"").append(entry.getKey().name().toLowerCase(Locale.ROOT)).append("\": {")
+                    .append("\"invocations\": ").append(phase.invocations)
+                    .append(", \"wall_time_nanos\": ").append(phase.wallTimeNanos)
+                    .append(", \"allocated_bytes\": ").append(allocationBean == null ? "null" : phase.allocatedBytes)
+                    .append('}');
+            first = false;
+        }
+        json.append("\n  },\n");
+
+        json.append("  \"counters\": {");
+        first = true;
+        for (var entry : counters.entrySet()) {
+            json.append(first ? "\n" : ",\n")
+                    .append("    \"").append(entry.getKey()).append("\": ").append(entry.getValue());
+            first = false;
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        json.append("  \"cache\": ");
+        if (cache == null) {
+            json.append("null");
+        } else {
+            var total = cache.hits() + cache.misses();
+            json.append("{\"hits\": ").append(cache.hits())
+                    .append(", \"misses\": ").append(cache.misses())
+                    .append(", \"hit_rate\": ").append(total == 0 ? "null" : String.format(Locale.ROOT, "%.4f", (double) cache.hits() / total))
+                    .append('}');
+        }
+        json.append(",\n");
+
+        json.append("  \"messages\": {");
+        first = true;
+        for (var entry : messages.entrySet()) {
+            json.append(first ? "" : ", ")
+                    .append('"').append(entry.getKey().name()).append("\": ").append(entry.getValue());
+            first = false;
+        }
+        json.append("}\n}\n");
+
+        return json.toString();
+    }
+
+    private long allocatedBytes() {
+        if (allocationBean == null) {
+            return 0;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Hits and misses of the cache
+     */
+    public record CacheStatistics(int hits, int misses) {
+    }
+
+    private static class PhaseStatistics {
+        private long invocations = 0;
+        private long wallTimeNanos = 0;
+        private long allocatedBytes = 0;
+    }
+}
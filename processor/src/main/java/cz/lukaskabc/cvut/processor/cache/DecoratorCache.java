@@ -0,0 +1,354 @@
+package cz.lukaskabc.cvut.processor.cache;
+
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.EnvironmentUtils;
+import cz.lukaskabc.cvut.processor.Log;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persistent cache of {@link DecoratorSnapshot snapshots} for elements processed by the annotation processor.
+ * <p>
+ * Entries are stored per processed (annotated) element together with hashes of all source files
+ * the result depends on. Elements from compiled classes (classpath) are tracked by the hash of their class file
+ * or of the jar containing it. An entry is reused only when none of these files has changed
+ * and the processor configuration affecting the snapshots and the processor itself (its jar) are the same.
+ * Warnings reported while creating the snapshots are stored with them and reported again when they are reused.
+ * Entries that were not used in the current run are dropped when the cache is saved.
+ *
+ * @implNote Classes of the platform (JDK) are not tracked.
+ */
+public class DecoratorCache {
+
+    /**
+     * Version of the cache file format, change to it invalidates all existing cache files
+     */
+    private static final int FORMAT_VERSION = 5;
+
+    /**
+     * Hash of the processor classes and resources, so snapshots are not reused after a processor upgrade
+     */
+    private static final String PROCESSOR_FINGERPRINT = processorFingerprint();
+
+    /**
+     * Classes allowed in the cache file, the file may come from shared storage,
+     * so no other classes are deserialized
+     */
+    private static final Set<Class<?>> ALLOWED_CLASSES = Set.of(
+            Entry.class, DecoratorSnapshot.class, DecoratorSnapshot.DocFragment.class, Log.Message.class,
+            Diagnostic.Kind.class, Enum.class, String.class, HashMap.class, TreeMap.class, Map.Entry[].class, Object[].class);
+
+    private final File file;
+
+    private final EnvironmentUtils envUtils;
+
+    /**
+     * Fingerprint of the processor configuration used for creating the snapshots
+     */
+    private final String configurationFingerprint;
+
+    /**
+     * Entries loaded from the cache file
+     */
+    private final Map<String, Entry> loadedEntries;
+
+    /**
+     * Entries used or created in the current run
+     */
+    private final Map<String, Entry> currentEntries = new LinkedHashMap<>();
+
+    /**
+     * Hashes of source files computed in the current run (null when the file cannot be hashed)
+     */
+    private final Map<String, Optional<String>> sourceHashes = new HashMap<>();
+
+    private int hits = 0;
+
+    private int misses = 0;
+
+    private DecoratorCache(File file, EnvironmentUtils envUtils, String configurationFingerprint, Map<String, Entry> loadedEntries) {
+        this.file = file;
+        this.envUtils = envUtils;
+        this.configurationFingerprint = configurationFingerprint + ";" + PROCESSOR_FINGERPRINT;
+        this.loadedEntries = loadedEntries;
+    }
+
+    /**
+     * Loads the cache from the file, when the file does not exist or is not compatible, empty cache is returned
+     *
+     * @param file                     cache file
+     * @param configurationFingerprint fingerprint of the current processor configuration
+     */
+    public static DecoratorCache load(File file, EnvironmentUtils envUtils, String configurationFingerprint) {
+        Map<String, Entry> entries = new HashMap<>();
+
+        if (file.isFile()) {
+            try (var input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                input.setObjectInputFilter(DecoratorCache::filterClass);
+                var version = input.readInt();
+                var fingerprint = input.readUTF();
+                if (version == FORMAT_VERSION && fingerprint.equals(configurationFingerprint + ";" + PROCESSOR_FINGERPRINT)) {
+                    @SuppressWarnings("unchecked")
+                    var loaded = (Map<String, Entry>) input.readObject();
+                    entries = loaded;
+                } else {
+                    Log.instance().info("Ignoring cache file created with different configuration or processor version: " + file.getAbsolutePath());
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                Log.instance().warn("Failed to read cache file " + file.getAbsolutePath() + ", ignoring it: " + e.getMessage());
+                entries = new HashMap<>();
+            }
+        }
+
+        return new DecoratorCache(file, envUtils, configurationFingerprint, entries);
+    }
+
+    /**
+     * Builds a stable identifier of the element from its kind and the chain of enclosing elements
+     *
+     * @param category category of the processing (like annotation type) the element is processed in
+     */
+    public static String elementKey(String category, Element element) {
+        var builder = new StringBuilder();
+        for (var e = element; e != null; e = e.getEnclosingElement()) {
+            builder.insert(0, "/" + e.getKind() + ":" + e);
+        }
+        return category + builder;
+    }
+
+    /**
+     * Returns cached snapshots for the key when all source files of the entry are unchanged,
+     * warnings reported when the snapshots were created are reported again
+     *
+     * @param key element key created with {@link #elementKey}
+     * @return cached snapshots or empty optional
+     */
+    public Optional<List<DecoratorSnapshot>> lookup(String key) {
+        var entry = loadedEntries.get(key);
+        if (entry == null || !isValid(entry)) {
+            misses++;
+            return Optional.empty();
+        }
+
+        hits++;
+        currentEntries.put(key, entry);
+        Log.replay(entry.messages());
+        return Optional.of(entry.snapshots());
+    }
+
+    /**
+     * Stores snapshots created for the key
+     *
+     * @param key                element key created with {@link #elementKey}
+     * @param dependencyElements elements whose source files affect the snapshots
+     * @param snapshots          snapshots to store
+     * @param messages           warnings reported while creating the snapshots
+     */
+    public void store(String key, Collection<? extends Element> dependencyElements, List<DecoratorSnapshot> snapshots, List<Log.Message> messages) {
+        var hashes = new TreeMap<String, String>();
+        for (var element : dependencyElements) {
+            var uri = getSourceUri(element);
+            if (uri == null) {
+                uri = getClassFileUri(element);
+            }
+            if (uri == null) {
+                continue; // element is from the platform classes
+            }
+
+            var hash = hashSource(uri);
+            if (hash.isEmpty()) {
+                return; // results depend on a source which cannot be tracked
+            }
+            hashes.put(uri.toString(), hash.get());
+        }
+
+        currentEntries.put(key, new Entry(hashes, List.copyOf(snapshots), List.copyOf(messages)));
+    }
+
+    /**
+     * Writes entries used or created in the current run to the cache file
+     */
+    public void save() {
+        var target = file.toPath();
+        // the cache is written to a temporary file and then moved,
+        // so interrupted or concurrent builds never leave a truncated cache file
+        var tempFile = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (var output = new ObjectOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(configurationFingerprint);
+                output.writeObject(new HashMap<>(currentEntries));
+            }
+            moveReplacing(tempFile, target);
+        } catch (IOException e) {
+            Log.instance().warn("Failed to write cache file " + file.getAbsolutePath() + ": " + e.getMessage());
+            return;
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                Log.instance().warn("Failed to delete temporary file " + tempFile + ": " + e.getMessage());
+            }
+        }
+
+        Log.instance().debug("Cache: " + hits + " hits, " + misses + " misses");
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    private boolean isValid(Entry entry) {
+        for (var dependency : entry.sourceHashes().entrySet()) {
+            var hash = hashSource(URI.create(dependency.getKey()));
+            if (hash.isEmpty() || !hash.get().equals(dependency.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private URI getSourceUri(Element element) {
+        var path = envUtils.trees().getPath(element);
+        if (path == null) {
+            return null;
+        }
+        return path.getCompilationUnit().getSourceFile().toUri();
+    }
+
+    /**
+     * Finds the class file of the element on the classpath,
+     * for classes in a jar the URI of the jar is returned (the whole jar is tracked)
+     *
+     * @return URI of the class file, jar or null when the class is not on the classpath (e.g. platform classes)
+     */
+    private URI getClassFileUri(Element element) {
+        var enclosing = element;
+        while (enclosing != null && !(enclosing instanceof TypeElement)) {
+            enclosing = enclosing.getEnclosingElement();
+        }
+        if (enclosing == null) {
+            return null;
+        }
+
+        var type = (TypeElement) enclosing;
+        var packageName = envUtils.elements().getPackageOf(type).getQualifiedName().toString();
+        var binaryName = envUtils.elements().getBinaryName(type).toString();
+        var relativeName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + ".class";
+        URI uri;
+        try {
+            uri = envUtils.processingEnvironment().getFiler().getResource(StandardLocation.CLASS_PATH, packageName, relativeName).toUri();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if ("jar".equals(uri.getScheme())) {
+            // jar:file:/path/library.jar!/package/Class.class
+            var archive = uri.getRawSchemeSpecificPart();
+            var separator = archive.indexOf("!/");
+            return URI.create(separator < 0 ? archive : archive.substring(0, separator));
+        }
+        return uri;
+    }
+
+    private Optional<String> hashSource(URI uri) {
+        return sourceHashes.computeIfAbsent(uri.toString(), ignored -> {
+            if (!"file".equals(uri.getScheme())) {
+                return Optional.empty();
+            }
+
+            try {
+                var digest = MessageDigest.getInstance("SHA-256");
+                var hash = digest.digest(Files.readAllBytes(Path.of(uri)));
+                return Optional.of(HexFormat.of().formatHex(hash));
+            } catch (IOException | NoSuchAlgorithmException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Cached result for a single processed element
+     *
+     * @param sourceHashes map of source file URI and its content hash
+     * @param snapshots    snapshots created for the element
+     * @param messages     warnings reported while creating the snapshots
+     */
+    private record Entry(Map<String, String> sourceHashes, List<DecoratorSnapshot> snapshots,
+                         List<Log.Message> messages) implements Serializable {
+    }
+
+    private static ObjectInputFilter.Status filterClass(ObjectInputFilter.FilterInfo info) {
+        var serialClass = info.serialClass();
+        if (serialClass == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        if (ALLOWED_CLASSES.contains(serialClass)
+                // immutable collections created by List.copyOf and their serial proxy
+                || serialClass.getName().startsWith("java.util.ImmutableCollections$")
+                || serialClass.getName().equals("java.util.CollSer")) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    /**
+     * Moves the file atomically when supported by the file system
+     */
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return SHA-256 hash of the processor jar (or of the class directory the processor is loaded from),
+     * {@code unknown} when it cannot be computed
+     */
+    private static String processorFingerprint() {
+        try {
+            var codeSource = DecoratorCache.class.getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                return "unknown";
+            }
+
+            var location = Path.of(codeSource.getLocation().toURI());
+            var digest = MessageDigest.getInstance("SHA-256");
+            if (Files.isDirectory(location)) {
+                try (var files = Files.walk(location)) {
+                    for (var path : files.filter(Files::isRegularFile).sorted().toList()) {
+                        digest.update(location.relativize(path).toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(path));
+                    }
+                }
+            } else {
+                digest.update(Files.readAllBytes(location));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException | URISyntaxException | IllegalArgumentException | SecurityException e) {
+            return "unknown";
+        }
+    }
+}
@@ -16,8 +16,11 @@ public abstract class AbstractConstructorPropertyDescriptor extends AbstractProp
 
     protected final EnvironmentUtils envUtils;
 
-    protected AbstractConstructorPropertyDescriptor(EnvironmentUtils envUtils) {
+    protected final ConstructorIndex constructorIndex;
+
+    protected AbstractConstructorPropertyDescriptor(EnvironmentUtils envUtils, ConstructorIndex constructorIndex) {
         this.envUtils = envUtils;
+        this.constructorIndex = constructorIndex;
     }
 
     public abstract Optional<ExecutableElement> getConstructor(TypeElement e);
@@ -42,7 +45,7 @@ public abstract class AbstractConstructorPropertyDescriptor extends AbstractProp
             return super.isProperty(e);
         }
 
-        var parameter = getMethodParam(constructor, e.getSimpleName().toString(), e.asType(), envUtils.types());
+        var parameter = getConstructorParam(constructor, e);
         if (parameter.isEmpty()) {
             return false;
         }
@@ -67,6 +70,13 @@ public abstract class AbstractConstructorPropertyDescriptor extends AbstractProp
         return false;
     }
 
+    /**
+     * @return parameter of the constructor matching the attribute name and type
+     */
+    public Optional<VariableElement> getConstructorParam(ExecutableElement constructor, VariableElement attribute) {
+        return constructorIndex.getParameter(constructor, attribute.getSimpleName().toString(), attribute.asType(), envUtils.types());
+    }
+
     /**
      * Exception thrown when a constructor parameter has a @Name annotation with a value different from the parameter name.
      */
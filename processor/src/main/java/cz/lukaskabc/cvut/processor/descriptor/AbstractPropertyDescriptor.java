@@ -1,9 +1,6 @@
 package cz.lukaskabc.cvut.processor.descriptor;
 
 import javax.lang.model.element.*;
-import javax.lang.model.type.TypeMirror;
-import javax.lang.model.util.Types;
-import java.util.Optional;
 
 /**
  * Describes an Element, whether it is a bindable property or not.
@@ -12,14 +9,6 @@ public abstract class AbstractPropertyDescriptor implements PropertyDescriptor {
 
     private AbstractPropertyDescriptor next;
 
-    public static Optional<VariableElement> getMethodParam(ExecutableElement method, String fieldName, TypeMirror fieldType, Types typeUtils) {
-        return method.getParameters().stream() // stream of constructor parameters
-                .filter(el -> el.getSimpleName().toString().equals(fieldName)) // parameter name matches field name
-                .filter(el -> typeUtils.isSameType(el.asType(), fieldType)) // parameter type matches the field type
-                .map(el -> (VariableElement) el)
-                .findFirst(); // parameter type matches the field type
-    }
-
     public static TypeElement getEnclosingClass(VariableElement e) {
         var enclosing = e.getEnclosingElement();
         while (!enclosing.getKind().isClass()) {
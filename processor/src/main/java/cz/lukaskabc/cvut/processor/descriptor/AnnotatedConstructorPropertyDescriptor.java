@@ -4,9 +4,7 @@ import cz.lukaskabc.cvut.processor.EnvironmentUtils;
 import cz.lukaskabc.cvut.processor.Log;
 import cz.lukaskabc.cvut.processor.exception.InvalidSpringConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.properties.bind.ConstructorBinding;
 
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
@@ -20,18 +18,14 @@ import java.util.Optional;
  */
 public class AnnotatedConstructorPropertyDescriptor extends AbstractConstructorPropertyDescriptor {
 
-    public AnnotatedConstructorPropertyDescriptor(EnvironmentUtils envUtils) {
-        super(envUtils);
+    public AnnotatedConstructorPropertyDescriptor(EnvironmentUtils envUtils, ConstructorIndex constructorIndex) {
+        super(envUtils, constructorIndex);
     }
 
     @Override
     public Optional<ExecutableElement> getConstructor(TypeElement e) {
         // TODO: check deprecated ConstructorBinding (according to supported version if its needed)
-        var constructors = e.getEnclosedElements().stream()
-                .filter(el -> el.getKind() == ElementKind.CONSTRUCTOR)
-                .map(el -> (ExecutableElement) el)
-                .filter(el -> el.getAnnotation(ConstructorBinding.class) != null)
-                .toList();
+        var constructors = constructorIndex.getBindingConstructors(e);
         if (constructors.size() > 1) {
             Log.withContext(e)
                     .throwError("Multiple constructors with ConstructorBinding annotation, consult Spring Boot documentation for correct usage",
@@ -44,8 +38,7 @@ public class AnnotatedConstructorPropertyDescriptor extends AbstractConstructorP
 
     @Override
     public boolean shouldCallSuper(ExecutableElement constructor, VariableElement attribute) {
-        var anyAutowiredConstructorPresent = constructor.getEnclosingElement().getEnclosedElements().stream()
-                .filter(e -> e.getKind() == ElementKind.CONSTRUCTOR)
+        var anyAutowiredConstructorPresent = constructorIndex.getConstructors((TypeElement) constructor.getEnclosingElement()).stream()
                 .anyMatch(c -> c.getAnnotation(Autowired.class) != null);
         if (anyAutowiredConstructorPresent) {
             Log.withContext(constructor).throwError("Class " + constructor.getEnclosingElement().getSimpleName() +
@@ -0,0 +1,69 @@
+package cz.lukaskabc.cvut.processor.descriptor;
+
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Index of constructors and their parameters shared by constructor property descriptors,
+ * so the enclosed elements of a class are searched only once instead of for every property.
+ * <p>
+ * Elements are valid only in a single compilation, a new index has to be created for each processing run.
+ */
+public class ConstructorIndex {
+
+    private final Map<TypeElement, List<ExecutableElement>> constructors = new HashMap<>();
+
+    private final Map<TypeElement, List<ExecutableElement>> bindingConstructors = new HashMap<>();
+
+    /**
+     * Constructor parameters mapped by their name
+     */
+    private final Map<ExecutableElement, Map<String, VariableElement>> parameters = new HashMap<>();
+
+    /**
+     * @return all constructors declared in the type
+     */
+    public List<ExecutableElement> getConstructors(TypeElement type) {
+        return constructors.computeIfAbsent(type, t -> t.getEnclosedElements().stream()
+                .filter(el -> el.getKind() == ElementKind.CONSTRUCTOR)
+                .map(el -> (ExecutableElement) el)
+                .toList());
+    }
+
+    /**
+     * @return constructors declared in the type annotated with {@link ConstructorBinding @ConstructorBinding}
+     */
+    public List<ExecutableElement> getBindingConstructors(TypeElement type) {
+        return bindingConstructors.computeIfAbsent(type, t -> getConstructors(t).stream()
+                .filter(el -> el.getAnnotation(ConstructorBinding.class) != null)
+                .toList());
+    }
+
+    /**
+     * @return parameter of the constructor matching the field name and type
+     */
+    public Optional<VariableElement> getParameter(ExecutableElement constructor, String fieldName, TypeMirror fieldType, Types typeUtils) {
+        var parameter = parameters.computeIfAbsent(constructor, c -> {
+            var map = new HashMap<String, VariableElement>();
+            for (var param : c.getParameters()) {
+                map.putIfAbsent(param.getSimpleName().toString(), param);
+            }
+            return map;
+        }).get(fieldName);
+
+        if (parameter == null || !typeUtils.isSameType(parameter.asType(), fieldType)) {
+            return Optional.empty();
+        }
+        return Optional.of(parameter);
+    }
+}
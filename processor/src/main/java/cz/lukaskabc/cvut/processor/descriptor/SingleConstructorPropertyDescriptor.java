@@ -5,7 +5,6 @@ import cz.lukaskabc.cvut.processor.Log;
 import cz.lukaskabc.cvut.processor.exception.InvalidSpringConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
@@ -18,8 +17,8 @@ import java.util.Optional;
  */
 public class SingleConstructorPropertyDescriptor extends AbstractConstructorPropertyDescriptor {
 
-    public SingleConstructorPropertyDescriptor(EnvironmentUtils envUtils) {
-        super(envUtils);
+    public SingleConstructorPropertyDescriptor(EnvironmentUtils envUtils, ConstructorIndex constructorIndex) {
+        super(envUtils, constructorIndex);
     }
 
     @Override
@@ -47,10 +46,7 @@ public class SingleConstructorPropertyDescriptor extends AbstractConstructorProp
     }
 
     public List<ExecutableElement> getConstructors(TypeElement e) {
-        return e.getEnclosedElements().stream()
-                .filter(el -> el.getKind() == ElementKind.CONSTRUCTOR)
-                .map(el -> (ExecutableElement) el)
-                .toList();
+        return constructorIndex.getConstructors(e);
     }
 
 
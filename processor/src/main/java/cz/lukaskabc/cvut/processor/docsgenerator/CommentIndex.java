@@ -0,0 +1,84 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized form of comments composed into a single description,
+ * used for detecting comments which are already present in the description.
+ * <p>
+ * Comments are compared without whitespace and {@code <br>} tags, ignoring case.
+ * The normalized description is extended with each added comment, so it is not normalized again for every check.
+ */
+public class CommentIndex {
+
+    /**
+     * Languages with context dependent lower case mapping (see {@link String#toLowerCase(Locale)})
+     */
+    private static final Set<String> CONTEXT_SENSITIVE_LANGUAGES = Set.of("tr", "az", "lt");
+
+    /**
+     * Greek capital sigma, its lower case depends on the surrounding text (final sigma)
+     */
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    private static final String BR = "<br>";
+
+    /**
+     * Normalized description with the original case
+     */
+    private final StringBuilder normalized = new StringBuilder();
+
+    /**
+     * Lower case of the whole {@link #normalized} description
+     */
+    private final StringBuilder lowerCase = new StringBuilder();
+
+    /**
+     * Whether the lower case of concatenated comments may differ from the concatenation of their lower cases
+     */
+    private boolean contextSensitive = CONTEXT_SENSITIVE_LANGUAGES.contains(Locale.getDefault().getLanguage());
+
+    /**
+     * Adds the comment appended to the description
+     */
+    public void add(String comment) {
+        var normalizedComment = normalize(comment);
+        normalized.append(normalizedComment);
+
+        contextSensitive |= normalizedComment.indexOf(CAPITAL_SIGMA) >= 0;
+        if (contextSensitive) {
+            lowerCase.setLength(0);
+            lowerCase.append(normalized.toString().toLowerCase());
+        } else {
+            lowerCase.append(normalizedComment.toLowerCase());
+        }
+    }
+
+    /**
+     * @return true when the normalized comment is a part of the normalized description
+     */
+    public boolean contains(String comment) {
+        return lowerCase.indexOf(normalize(comment).toLowerCase()) >= 0;
+    }
+
+    /**
+     * Removes whitespace characters (matched by regex {@code \s}) and {@code <br>} tags
+     */
+    private static String normalize(String text) {
+        var result = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            var c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                i++;
+            } else if (text.startsWith(BR, i)) {
+                i += BR.length();
+            } else {
+                result.append(c);
+                i++;
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.Log;
+
+import javax.annotation.processing.Filer;
+import javax.tools.StandardLocation;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Writes standard Spring Boot configuration metadata ({@value #RESOURCE_NAME})
+ * for snapshots of configuration properties.
+ * <p>
+ * The metadata is streamed with {@link JsonWriter} property by property.
+ * Descriptions are the plain Javadoc text of the properties (without the formatting of the documentation),
+ * defaults of arrays and collections are written as JSON arrays.
+ *
+ * @see <a href="https://docs.spring.io/spring-boot/docs/3.2.1/reference/htmlsingle/#appendix.configuration-metadata.format">Metadata format</a>
+ */
+public class ConfigurationMetadataGenerator {
+
+    /**
+     * Path of the metadata resource relative to the class output
+     */
+    public static final String RESOURCE_NAME = "META-INF/spring-configuration-metadata.json";
+
+    private static final Set<String> BOOLEAN_TYPES = Set.of("boolean", "java.lang.Boolean");
+
+    private static final Set<String> NUMBER_TYPES = Set.of(
+            "byte", "short", "int", "long", "float", "double",
+            "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long",
+            "java.lang.Float", "java.lang.Double");
+
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    /**
+     * Collection types whose default values are written as JSON arrays
+     */
+    private static final Set<String> COLLECTION_TYPES = Set.of(
+            "java.lang.Iterable", "java.util.Collection", "java.util.List", "java.util.Set",
+            "java.util.SortedSet", "java.util.ArrayList", "java.util.LinkedList",
+            "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet");
+
+    /**
+     * Writes metadata of snapshots with a property name to the class output,
+     * hidden snapshots are skipped and properties are ordered by their name
+     *
+     * @return number of written properties
+     */
+    public int write(Filer filer, Collection<DecoratorSnapshot> snapshots) {
+        // first snapshot for each property name
+        var properties = new TreeMap<String, DecoratorSnapshot>();
+        for (var snapshot : snapshots) {
+            if (snapshot.propertyName() != null && !snapshot.isHidden()) {
+                properties.putIfAbsent(snapshot.propertyName(), snapshot);
+            }
+        }
+
+        try {
+            var resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", RESOURCE_NAME);
+            try (var json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)))) {
+                json.beginObject();
+                json.name("groups").beginArray().endArray();
+                json.name("properties").beginArray();
+                for (var snapshot : properties.values()) {
+                    writeProperty(json, snapshot);
+                }
+                json.endArray();
+                json.name("hints").beginArray().endArray();
+                json.endObject();
+            }
+            Log.instance().debug("Configuration metadata with " + properties.size() + " properties written to " + resource.toUri());
+        } catch (IOException e) {
+            Log.instance().warn("Failed to write configuration metadata " + RESOURCE_NAME + ": " + e.getMessage());
+        }
+        return properties.size();
+    }
+
+    private void writeProperty(JsonWriter json, DecoratorSnapshot snapshot) throws IOException {
+        json.beginObject();
+        json.name("name").value(snapshot.propertyName());
+        if (snapshot.type() != null) {
+            json.name("type").value(snapshot.type());
+        }
+
+        if (snapshot.description() != null && !snapshot.description().isBlank()) {
+            json.name("description").value(snapshot.description());
+        }
+
+        var defaultValue = snapshot.defaultValue();
+        if (defaultValue != null && !defaultValue.isBlank() && !defaultValue.equals("\"\"")) {
+            json.name("defaultValue");
+            writeDefaultValue(json, snapshot.type(), defaultValue);
+        }
+
+        if (snapshot.deprecated()) {
+            json.name("deprecated").value(true);
+            json.name("deprecation").beginObject().name("level").value("warning").endObject();
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes the default value of an array or a collection ({@code [a, b]}) as a JSON array of its elements,
+     * other values are written with {@link #writeValue(JsonWriter, String, String)}
+     */
+    private void writeDefaultValue(JsonWriter json, String type, String value) throws IOException {
+        var elementType = elementType(type);
+        if (elementType == null || !value.startsWith("[") || !value.endsWith("]")) {
+            writeValue(json, type, value);
+            return;
+        }
+
+        json.beginArray();
+        var elements = value.substring(1, value.length() - 1);
+        if (!elements.isEmpty()) {
+            for (var element : elements.split(", ", -1)) {
+                writeValue(json, elementType, element);
+            }
+        }
+        json.endArray();
+    }
+
+    /**
+     * @return type of elements of the array or collection type, null for other types
+     */
+    private static String elementType(String type) {
+        if (type == null) {
+            return null;
+        }
+        if (type.endsWith("[]")) {
+            return type.substring(0, type.length() - 2);
+        }
+
+        var argumentsStart = type.indexOf('<');
+        if (argumentsStart > 0 && type.endsWith(">") && COLLECTION_TYPES.contains(type.substring(0, argumentsStart))) {
+            return type.substring(argumentsStart + 1, type.length() - 1);
+        }
+        return COLLECTION_TYPES.contains(type) ? "java.lang.Object" : null;
+    }
+
+    /**
+     * Writes the value as a JSON boolean or number when it matches the type,
+     * otherwise as a string
+     */
+    private void writeValue(JsonWriter json, String type, String value) throws IOException {
+        if (BOOLEAN_TYPES.contains(type) && (value.equals("true") || value.equals("false"))) {
+            json.value(Boolean.parseBoolean(value));
+        } else if (NUMBER_TYPES.contains(type) && NUMBER.matcher(value).matches()) {
+            json.numberValue(value);
+        } else {
+            json.value(value);
+        }
+    }
+}
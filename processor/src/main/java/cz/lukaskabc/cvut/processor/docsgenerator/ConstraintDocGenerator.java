@@ -0,0 +1,24 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import cz.lukaskabc.cvut.processor.DocumentedElement;
+import cz.lukaskabc.cvut.processor.formatter.Formatter;
+
+import javax.lang.model.element.AnnotationMirror;
+
+/**
+ * Generates documentation for single constraint annotation of {@link DocumentedElement}
+ *
+ * @see JSR303DocsGenerator
+ * @see ConstraintDocGeneratorProvider
+ */
+@FunctionalInterface
+public interface ConstraintDocGenerator {
+
+    /**
+     * @param formatter        formatter to write the constraint documentation into
+     * @param annotationMirror the constraint annotation
+     * @param element          documented element with the annotation
+     * @return true on success
+     */
+    boolean generate(Formatter formatter, AnnotationMirror annotationMirror, DocumentedElement element);
+}
@@ -0,0 +1,18 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import java.util.Map;
+
+/**
+ * Service providing {@link ConstraintDocGenerator generators} for custom constraint annotations.
+ * <p>
+ * Implementations are loaded with {@link java.util.ServiceLoader} from the annotation processor path,
+ * register them in {@code META-INF/services/cz.lukaskabc.cvut.processor.docsgenerator.ConstraintDocGeneratorProvider}.
+ * Generators provided for already known annotations replace the built-in ones.
+ */
+public interface ConstraintDocGeneratorProvider {
+
+    /**
+     * @return map of fully qualified annotation names (nested types separated by dot) and generators documenting them
+     */
+    Map<String, ConstraintDocGenerator> getConstraintDocGenerators();
+}
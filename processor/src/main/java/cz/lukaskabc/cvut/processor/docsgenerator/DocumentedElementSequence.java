@@ -0,0 +1,50 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.DocumentedElement;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateSequenceModel;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Template sequence of options composing the documentation of each option only when the template accesses it.
+ * <p>
+ * Composed {@link DocumentedElement elements} are not retained by the sequence,
+ * so only the element currently processed by the template is kept in memory.
+ */
+class DocumentedElementSequence implements TemplateSequenceModel {
+
+    private final List<DecoratorSnapshot> snapshots;
+
+    private final Function<DecoratorSnapshot, DocumentedElement> renderer;
+
+    private final ObjectWrapper objectWrapper;
+
+    /**
+     * @param snapshots     snapshots of options in the output order (without hidden ones)
+     * @param renderer      composes documentation of the snapshot
+     * @param objectWrapper wrapper used for exposing composed elements to the template
+     */
+    DocumentedElementSequence(List<DecoratorSnapshot> snapshots, Function<DecoratorSnapshot, DocumentedElement> renderer, ObjectWrapper objectWrapper) {
+        this.snapshots = snapshots;
+        this.renderer = renderer;
+        this.objectWrapper = objectWrapper;
+    }
+
+    @Override
+    public TemplateModel get(int index) throws TemplateModelException {
+        if (index < 0 || index >= snapshots.size()) {
+            return null;
+        }
+        return objectWrapper.wrap(renderer.apply(snapshots.get(index)));
+    }
+
+    @Override
+    public int size() {
+        return snapshots.size();
+    }
+}
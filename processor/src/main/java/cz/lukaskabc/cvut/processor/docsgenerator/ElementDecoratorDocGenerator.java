@@ -1,10 +1,19 @@
 package cz.lukaskabc.cvut.processor.docsgenerator;
 
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.ParamTree;
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot.DocFragment;
 import cz.lukaskabc.cvut.processor.DocumentedElement;
 import cz.lukaskabc.cvut.processor.ElementDecorator;
 import cz.lukaskabc.cvut.processor.formatter.Formatter;
 import cz.lukaskabc.cvut.processor.visitor.JavadocTreeVisitor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Generates documentation for {@link ElementDecorator}, includes javadoc tags and JSR-303 annotations
  */
@@ -22,46 +31,126 @@ public class ElementDecoratorDocGenerator {
         jsr303DocsGenerator = new JSR303DocsGenerator();
     }
 
+    /**
+     * Renders Javadoc comments and JSR-303 annotations of the {@link ElementDecorator}
+     * into a {@link DecoratorSnapshot} which no longer references compiler trees.
+     * Rendering of comments stops at the first comment with @hidden tag.
+     *
+     * @return snapshot of the decorator documentation
+     */
+    public DecoratorSnapshot snapshot(ElementDecorator element) {
+        var documented = new DocumentedElement(element);
+        DocFragment doc = null;
+        String description = null;
+        var additionalDocs = new ArrayList<DocFragment>();
+        boolean isHidden = false;
+
+        if (element.getDocTree().isPresent()) { // only if there is javadoc
+            doc = renderFragment(element.getDocTree().get());
+            description = plainText(element.getDocTree().get());
+            isHidden = doc.hidden();
+        }
+
+        if (!isHidden) {
+            for (var additionalDocTree : element.getAdditionalDocTrees()) {
+                var fragment = renderFragment(additionalDocTree);
+                additionalDocs.add(fragment);
+
+                if (fragment.hidden()) {
+                    break;
+                }
+            }
+        }
+
+        var constraints = formatter.emptyClone();
+        jsr303DocsGenerator.generate(constraints, documented);
+        checkDeprecated(documented);
+
+        return new DecoratorSnapshot(element.getConfigOptionName(),
+                element.getElement().getSimpleName().toString(),
+                element.getTypeName(),
+                element.getPropertyName().orElse(null),
+                doc,
+                description,
+                additionalDocs,
+                element.getDefaultValue().orElse(null),
+                constraints.toString(),
+                documented.isRequired(),
+                documented.isDeprecated());
+    }
+
+    private DocFragment renderFragment(DocTree docTree) {
+        var fragmentFormatter = formatter.emptyClone();
+        boolean isHidden = false;
+        if (docTree != null)
+            isHidden = javadocFormatter.visit(docTree, fragmentFormatter);
+
+        return new DocFragment(fragmentFormatter.toString(), isHidden);
+    }
+
+    /**
+     * @return Javadoc text of the comment (or of the parameter description) without block tags,
+     * with whitespace collapsed (like descriptions in Spring Boot configuration metadata)
+     */
+    private static String plainText(DocTree docTree) {
+        List<? extends DocTree> body;
+        if (docTree instanceof DocCommentTree comment) {
+            body = comment.getFullBody();
+        } else if (docTree instanceof ParamTree param) {
+            body = param.getDescription();
+        } else {
+            body = List.of(docTree);
+        }
+        return body.stream().map(DocTree::toString).collect(Collectors.joining()).replaceAll("\\s+", " ").strip();
+    }
+
     /**
      * Generates documentation for {@link ElementDecorator}, includes javadoc tags and JSR-303 annotations
      *
      * @return {@link DocumentedElement} with generated documentation or null if the element is hidden
      */
     public DocumentedElement generate(ElementDecorator element) {
-        var documented = new DocumentedElement(element);
-        var optionalTree = element.getDocTree();
+        return generate(snapshot(element));
+    }
+
+    /**
+     * Composes documentation from the {@link DecoratorSnapshot}
+     *
+     * @return {@link DocumentedElement} with generated documentation or null if the element is hidden
+     */
+    public DocumentedElement generate(DecoratorSnapshot snapshot) {
+        var documented = new DocumentedElement(snapshot);
         var description = formatter.emptyClone();
         boolean isHidden = false;
 
-        if (optionalTree.isPresent()) { // only if there is javadoc
-            var rootTree = optionalTree.get();
-
-            isHidden = javadocFormatter.visit(rootTree, description);
-            if (isHidden) {
-                documented.setHidden();
-            }
+        if (snapshot.doc() != null) { // only if there is javadoc
+            description.rawAppend(snapshot.doc().text());
+            isHidden = snapshot.doc().hidden();
         }
 
-        if (!element.getAdditionalDocTrees().isEmpty() && !isHidden) {
+        if (!snapshot.additionalDocs().isEmpty() && !isHidden) {
             if (!description.toString().isBlank()) // if there is a description before this one, add a paragraph
                 description.paragraph();
 
-            var it = element.getAdditionalDocTrees().iterator();
-            while (it.hasNext()) {
-                var additionalDocTree = it.next();
+            // paragraphs consist only of whitespace and <br> tags, so they are not a part of the normalized comments
+            var comments = new CommentIndex();
+            if (snapshot.doc() != null) {
+                comments.add(snapshot.doc().text());
+            }
 
-                var additionalFormatter = formatter.emptyClone();
-                if (additionalDocTree != null)
-                    isHidden = javadocFormatter.visit(additionalDocTree, additionalFormatter);
+            var it = snapshot.additionalDocs().iterator();
+            while (it.hasNext()) {
+                var additionalDoc = it.next();
 
-                if (isHidden) {
-                    documented.setHidden();
+                if (additionalDoc.hidden()) {
+                    isHidden = true;
                     break;
                 }
 
                 // if not yet present and not empty
-                if (!isCommentAlreadyPresent(additionalFormatter.toString(), description.toString()) && !additionalFormatter.toString().isBlank()) {
-                    description.append(additionalFormatter.toString());
+                if (!comments.contains(additionalDoc.text()) && !additionalDoc.text().isBlank()) {
+                    description.append(additionalDoc.text());
+                    comments.add(additionalDoc.text());
 
                     if (it.hasNext())
                         description.paragraph();
@@ -69,10 +158,14 @@ public class ElementDecoratorDocGenerator {
             }
         }
 
+        if (isHidden) {
+            return null;
+        }
+
         var restrictions = formatter.emptyClone();
 
-        if (element.getDefaultValue().isPresent()) {
-            var value = element.getDefaultValue().get();
+        if (snapshot.defaultValue() != null) {
+            var value = snapshot.defaultValue();
             if (!value.isBlank() && !value.equals("\"\"")) {
                 restrictions.rawAppend("Default value: ")
                         .code(value)
@@ -80,11 +173,13 @@ public class ElementDecoratorDocGenerator {
             }
         }
 
-        jsr303DocsGenerator.generate(restrictions, documented);
-        checkDeprecated(documented);
+        restrictions.rawAppend(snapshot.constraints());
 
-        if (documented.isHidden()) {
-            return null;
+        if (snapshot.required()) {
+            documented.setRequired();
+        }
+        if (snapshot.deprecated()) {
+            documented.setDeprecated();
         }
 
         var desc = finalDocsStringFormat(description.toString());
@@ -96,10 +191,6 @@ public class ElementDecoratorDocGenerator {
         return documented;
     }
 
-    private boolean isCommentAlreadyPresent(String needle, String haystack) {
-        return haystack.replaceAll("\\s|(<br>)", "").toLowerCase().contains(needle.replaceAll("\\s|(<br>)", "").toLowerCase());
-    }
-
     private String finalDocsStringFormat(String text) {
         text = formatter.removeDoubleSpaces(text);
         text = formatter.removeLeadingSpacesAndLineBreaks(text);
@@ -8,12 +8,8 @@ import jakarta.validation.constraints.*;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * Documentation generator for Jakarta Bean Validation API 3.0.0
@@ -26,19 +22,109 @@ public class JSR303DocsGenerator implements DocGenerator {
 
     private static final String JAVAX_CONSTRAINTS_PACKAGE = "javax.validation.constraints.";
 
+    /**
+     * Generators for constraint annotations mapped by the annotation qualified name
+     */
+    private final Map<String, ConstraintDocGenerator> generators = new HashMap<>();
+
+    /**
+     * Generators from {@link ConstraintDocGeneratorProvider} services on the processor path, loaded once
+     *
+     * @see #providedGenerators()
+     */
+    private static Map<String, ConstraintDocGenerator> providedGenerators = null;
+
+    /**
+     * Names of constraint annotations without generator which were already reported
+     */
+    private final Set<String> undocumentedAnnotations = new HashSet<>();
+
+    public JSR303DocsGenerator() {
+        registerConstraint("AssertFalse", this::constraintAssertFalse, this::constraintAssertFalseList);
+        registerConstraint("AssertTrue", this::constraintAssertTrue, this::constraintAssertTrueList);
+        registerConstraint("DecimalMax", this::constraintDecimalMax, this::constraintDecimalMaxList);
+        registerConstraint("DecimalMin", this::constraintDecimalMin, this::constraintDecimalMinList);
+        registerConstraint("Digits", this::constraintDigits, this::constraintDigitsList);
+        registerConstraint("Email", this::constraintEmail, this::constraintEmailList);
+        registerConstraint("Future", this::constraintFuture, this::constraintFutureList);
+        registerConstraint("FutureOrPresent", this::constraintFutureOrPresent, this::constraintFutureOrPresentList);
+        registerConstraint("Max", this::constraintMax, this::constraintMaxList);
+        registerConstraint("Min", this::constraintMin, this::constraintMinList);
+        registerConstraint("Negative", this::constraintNegative, this::constraintNegativeList);
+        registerConstraint("NegativeOrZero", this::constraintNegativeOrZero, this::constraintNegativeOrZeroList);
+        registerConstraint("NotBlank", this::constraintNotBlank, this::constraintNotBlankList);
+        registerConstraint("NotEmpty", this::constraintNotEmpty, this::constraintNotEmptyList);
+        registerConstraint("NotNull", this::constraintNotNull, this::constraintNotNullList);
+        registerConstraint("Null", this::constraintNull, this::constraintNullList);
+        registerConstraint("Past", this::constraintPast, this::constraintPastList);
+        registerConstraint("PastOrPresent", this::constraintPastOrPresent, this::constraintPastOrPresentList);
+        registerConstraint("Pattern", this::constraintPattern, this::constraintPatternList);
+        registerConstraint("Positive", this::constraintPositive, this::constraintPositiveList);
+        registerConstraint("PositiveOrZero", this::constraintPositiveOrZero, this::constraintPositiveOrZeroList);
+        registerConstraint("Size", this::constraintSize, this::constraintSizeList);
+
+        generators.putAll(providedGenerators());
+    }
+
+    /**
+     * @return constraint annotations of the element which are either validation constraints
+     * or have a generator from {@link ConstraintDocGeneratorProvider}
+     */
     public static List<? extends AnnotationMirror> getAnnotations(Element element) {
-        return element.getAnnotationMirrors().stream().filter(annotationMirror -> {
-            var type = (TypeElement) annotationMirror.getAnnotationType().asElement();
-            var isValidationConstraint = type.getQualifiedName().toString().startsWith(JAKARTA_CONSTRAINTS_PACKAGE);
+        return element.getAnnotationMirrors().stream()
+                .filter(annotationMirror -> isValidationConstraint(annotationMirror, element)
+                        || providedGenerators().containsKey(getQualifiedName(annotationMirror)))
+                .toList();
+    }
 
-            if (!isValidationConstraint && type.getQualifiedName().toString().startsWith(JAVAX_CONSTRAINTS_PACKAGE)) {
-                isValidationConstraint = true;
-                Log.withContext(element).warn("You are using old javax validation constraint " + type.getQualifiedName() + " - use " + JAKARTA_CONSTRAINTS_PACKAGE + "* package when possible");
-            }
+    private static boolean isValidationConstraint(AnnotationMirror annotationMirror, Element element) {
+        var name = getQualifiedName(annotationMirror);
+        var isValidationConstraint = name.startsWith(JAKARTA_CONSTRAINTS_PACKAGE);
 
+        if (!isValidationConstraint && name.startsWith(JAVAX_CONSTRAINTS_PACKAGE)) {
+            isValidationConstraint = true;
+            Log.withContext(element).warn("You are using old javax validation constraint " + name + " - use " + JAKARTA_CONSTRAINTS_PACKAGE + "* package when possible");
+        }
+
+        return isValidationConstraint;
+    }
 
-            return isValidationConstraint;
-        }).toList();
+    private static String getQualifiedName(AnnotationMirror annotationMirror) {
+        return ((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * Registers generators for the constraint and its {@code List} container in both jakarta and javax packages
+     *
+     * @param name          simple name of the constraint annotation
+     * @param generator     generator for the single annotation
+     * @param listGenerator generator for the {@code List} container
+     */
+    private void registerConstraint(String name, ConstraintDocGenerator generator, ConstraintDocGenerator listGenerator) {
+        for (var constraintsPackage : List.of(JAKARTA_CONSTRAINTS_PACKAGE, JAVAX_CONSTRAINTS_PACKAGE)) {
+            generators.put(constraintsPackage + name, generator);
+            generators.put(constraintsPackage + name + ".List", listGenerator);
+        }
+    }
+
+    /**
+     * Loads generators from {@link ConstraintDocGeneratorProvider} services available on the processor path
+     * (on the first call)
+     */
+    private static synchronized Map<String, ConstraintDocGenerator> providedGenerators() {
+        if (providedGenerators == null) {
+            var provided = new HashMap<String, ConstraintDocGenerator>();
+            try {
+                var loader = ServiceLoader.load(ConstraintDocGeneratorProvider.class, JSR303DocsGenerator.class.getClassLoader());
+                for (var provider : loader) {
+                    provided.putAll(provider.getConstraintDocGenerators());
+                }
+            } catch (ServiceConfigurationError e) {
+                Log.instance().error("Failed to load constraint documentation generators: " + e.getMessage());
+            }
+            providedGenerators = Map.copyOf(provided);
+        }
+        return providedGenerators;
     }
 
     private <T> T castOrNull(Object value, Class<T> resultType) {
@@ -79,54 +165,31 @@ public class JSR303DocsGenerator implements DocGenerator {
         return name.toString();
     }
 
-    Optional<Method> getMethodForAnnotation(AnnotationMirror annotationMirror) {
-        var element = annotationMirror.getAnnotationType().asElement();
-        var methodName = element.getSimpleName().toString();
-
-        if (methodName.equals("List")) {
-            methodName = element.getEnclosingElement().getSimpleName().toString() + methodName;
-        }
-
-        try {
-            return Optional.of(JSR303DocsGenerator.class
-                    .getMethod("constraint" + methodName,
-                            Formatter.class,
-                            AnnotationMirror.class,
-                            DocumentedElement.class));
-
-        } catch (NoSuchMethodException e) {
-            Log.instance().debug("Failed to document annotation constraint " + methodName);
-            return Optional.empty();
-        }
-    }
-
     @Override
     public boolean generate(Formatter formatter, DocumentedElement element) {
         var annotations = getAnnotations(element.getDecorator().getElement());
         boolean first = true;
         for (var annotation : annotations) {
-            var method = getMethodForAnnotation(annotation);
+            var name = getQualifiedName(annotation);
+            var generator = generators.get(name);
 
-            if (method.isEmpty())
+            if (generator == null) {
+                if (undocumentedAnnotations.add(name))
+                    Log.instance().debug("Failed to document annotation constraint " + name);
                 continue;
-
-            try {
-                var localFormatter = formatter.emptyClone();
-                Object result = method.get().invoke(this, localFormatter, annotation, element);
-
-                // ensures that when method fails it won't append invalid (incomplete) output
-                if ((Boolean) result) {
-                    if (!first) {
-                        formatter.newline();
-                    } else first = false;
-                    formatter.append(localFormatter.toString());
-                } else {
-                    Log.withContext(element.getDecorator().getElement()).error("Failed to document annotation constraint " + getAnnotationBaseName(annotation));
-                }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException(e);
             }
 
+            var localFormatter = formatter.emptyClone();
+
+            // ensures that when generator fails it won't append invalid (incomplete) output
+            if (generator.generate(localFormatter, annotation, element)) {
+                if (!first) {
+                    formatter.newline();
+                } else first = false;
+                formatter.append(localFormatter.toString());
+            } else {
+                Log.withContext(element.getDecorator().getElement()).error("Failed to document annotation constraint " + getAnnotationBaseName(annotation));
+            }
         }
 
         return true;
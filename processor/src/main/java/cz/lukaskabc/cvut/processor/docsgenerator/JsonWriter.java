@@ -0,0 +1,142 @@
+package cz.lukaskabc.cvut.processor.docsgenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON writer producing indented output,
+ * values are written directly to the underlying writer without building a tree.
+ */
+class JsonWriter implements AutoCloseable {
+
+    private static final String INDENT = "  ";
+
+    private final Writer writer;
+
+    /**
+     * Whether the current (innermost) object or array already contains a value
+     */
+    private final Deque<Boolean> scopes = new ArrayDeque<>();
+
+    /**
+     * Whether a name was written and its value is expected
+     */
+    private boolean afterName = false;
+
+    JsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writer.write(": ");
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writer.write(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Writes the value without quotes, the value has to be a valid JSON number
+     */
+    public JsonWriter numberValue(String value) throws IOException {
+        beforeValue();
+        writer.write(value);
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.write('\n');
+        writer.close();
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        beforeValue();
+        writer.write(bracket);
+        scopes.push(false);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        var empty = !scopes.pop();
+        if (!empty) {
+            newline();
+        }
+        writer.write(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (scopes.isEmpty()) {
+            return;
+        }
+        if (scopes.pop()) {
+            writer.write(',');
+        }
+        scopes.push(true);
+        newline();
+    }
+
+    private void newline() throws IOException {
+        writer.write('\n');
+        for (int i = 0; i < scopes.size(); i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -1,5 +1,6 @@
 package cz.lukaskabc.cvut.processor.docsgenerator;
 
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
 import cz.lukaskabc.cvut.processor.DocumentedElement;
 import cz.lukaskabc.cvut.processor.Log;
 import cz.lukaskabc.cvut.processor.formatter.Formatter;
@@ -11,13 +12,20 @@ import freemarker.core.TemplateConfiguration;
 import freemarker.template.*;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 
 public class TemplateDocsGenerator {
 
@@ -103,31 +111,110 @@ public class TemplateDocsGenerator {
         }
     }
 
-    private Map<String, Object> getTemplateData(Collection<DocumentedElement> elements) {
+    private Map<String, Object> getTemplateData(Object options) {
         var map = new HashMap<String, Object>();
-        map.put("options", elements);
+        map.put("options", options);
         map.put("format", formatter.getFileExtension().toUpperCase());
         map.put("nl", formatter.linebreak());
 
         return Collections.unmodifiableMap(map);
     }
 
+    /**
+     * Writes documentation of already composed elements
+     *
+     * @see #write(Object)
+     */
     public void generate(Collection<DocumentedElement> elements) {
+        write(elements);
+    }
+
+    /**
+     * Writes documentation composing each option only when it is accessed by the template,
+     * so the composed documentation of all options is never held in memory at once.
+     *
+     * @param snapshots snapshots of options in the output order (without hidden ones)
+     * @param renderer  composes documentation of the snapshot
+     * @see #write(Object)
+     */
+    public void generate(List<DecoratorSnapshot> snapshots, Function<DecoratorSnapshot, DocumentedElement> renderer) {
+        write(new DocumentedElementSequence(snapshots, renderer, engineConfig.getObjectWrapper()));
+    }
+
+    /**
+     * Processes the template into a temporary file next to the output file
+     * and then moves it to the output file.
+     * When the output file already exists with the same content, it is left untouched
+     * (keeping its modification time).
+     *
+     * @param options options exposed to the template
+     */
+    private void write(Object options) {
         if (template == null) {
             throw new IllegalStateException("Template not loaded");
         }
 
-        var data = getTemplateData(elements);
+        var data = getTemplateData(options);
+        var target = outputFile.getAbsoluteFile().toPath();
+
+        Log.instance().debug("Writing documentation to " + target);
+        Path tempFile = null;
+        try {
+            // temporary file in the same directory, so it can be moved atomically
+            // (created with default permissions, unlike Files.createTempFile which creates owner-only files)
+            tempFile = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (var writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                template.process(data, writer);
+            }
+
+            if (Files.isRegularFile(target) && Files.mismatch(tempFile, target) == -1) {
+                Log.instance().debug("Documentation has not changed, keeping " + target);
+                return;
+            }
 
-        Log.instance().debug("Writing documentation to " + outputFile.getAbsolutePath());
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            template.process(data, writer);
+            copyPermissions(target, tempFile);
+            moveReplacing(tempFile, target);
         } catch (IOException e) {
             Log.instance().error("Error writing to file " + outputFile);
             throw new RuntimeException(e);
         } catch (TemplateException e) {
             Log.instance().error("Error processing output template");
             throw new RuntimeException(e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    /**
+     * Copies POSIX permissions of the existing file to the replacing file,
+     * so the replaced file keeps its permissions
+     */
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (!Files.isRegularFile(source) || !source.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+    }
+
+    /**
+     * Moves the file atomically when supported by the file system
+     */
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            Log.instance().warn("Failed to delete temporary file " + tempFile + ": " + e.getMessage());
         }
     }
 
@@ -12,22 +12,133 @@ public abstract class Formatter implements Appendable {
         return "\n";
     }
 
+    /**
+     * Line break tag which is collapsed together with surrounding whitespace
+     */
+    private static final String BR = "<br>";
+
     /**
      * Removes double whitespace characters including spaces and line breaks
+     * <ul>
+     *     <li>multiple spaces are replaced with a single space</li>
+     *     <li>other whitespace sequences are replaced with {@link #eol()}</li>
+     *     <li>multiple {@code <br>} tags (with surrounding whitespace) are replaced with {@link #linebreak()}</li>
+     *     <li>trailing {@code <br>} tags and whitespace are removed</li>
+     * </ul>
+     * The text is processed in a single pass.
      *
      * @param text Text to be cleaned
      * @return Cleaned text
      */
     public String removeDoubleSpaces(String text) {
-        // \\s matches spaces and line breaks
-        return text.replaceAll(" {2,}", " ") // remove spaces
-                .replaceAll("\\s{2,}", eol()) // remove double line breaks
-                .replaceAll("((\\s*)<br>(\\s*)){2,}", linebreak()) // remove multiple spaces and line breaks
-                .replaceAll("(<br>|\\s)++$", ""); // remove trailing HTML line breaks or spaces
+        var result = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            // sequence of at least two <br> tags separated and surrounded by whitespace
+            int pos = isWhitespace(text, i) ? whitespaceEnd(text, i) : i;
+            int brCount = 0;
+            while (text.startsWith(BR, pos)) {
+                brCount++;
+                var next = whitespaceEnd(text, pos + BR.length());
+                if (!text.startsWith(BR, next)) {
+                    pos = next;
+                    break;
+                }
+                pos = next;
+            }
+
+            if (brCount >= 2) {
+                result.append(linebreak());
+                i = pos;
+            } else if (isWhitespace(text, i)) {
+                var end = whitespaceEnd(text, i);
+                appendWhitespace(result, text, i, end);
+                i = end;
+            } else {
+                result.append(text.charAt(i));
+                i++;
+            }
+        }
+
+        // remove trailing HTML line breaks or spaces
+        // (before the final line terminator which is not a whitespace, as regex $ would)
+        int end = result.length();
+        if (end > 0 && isUnicodeLineTerminator(result.charAt(end - 1))) {
+            end--;
+        }
+        int trimmedEnd = end;
+        while (trimmedEnd > 0) {
+            if (isWhitespace(result, trimmedEnd - 1)) {
+                trimmedEnd--;
+            } else if (trimmedEnd >= BR.length() && BR.contentEquals(result.subSequence(trimmedEnd - BR.length(), trimmedEnd))) {
+                trimmedEnd -= BR.length();
+            } else {
+                break;
+            }
+        }
+        result.delete(trimmedEnd, end);
+
+        return result.toString();
     }
 
     public String removeLeadingSpacesAndLineBreaks(String text) {
-        return text.replaceAll("^(<br>|\\s)++", "");
+        int start = 0;
+        while (start < text.length()) {
+            if (isWhitespace(text, start)) {
+                start++;
+            } else if (text.startsWith(BR, start)) {
+                start += BR.length();
+            } else {
+                break;
+            }
+        }
+        return text.substring(start);
+    }
+
+    /**
+     * Appends a whitespace sequence, single character is kept,
+     * multiple spaces are replaced with a space and other sequences with {@link #eol()}
+     */
+    private void appendWhitespace(StringBuilder result, String text, int start, int end) {
+        if (end - start == 1) {
+            result.append(text.charAt(start));
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != ' ') {
+                result.append(eol());
+                return;
+            }
+        }
+        result.append(' ');
+    }
+
+    /**
+     * @return index of the first non-whitespace character at or after start
+     */
+    private static int whitespaceEnd(String text, int start) {
+        while (isWhitespace(text, start)) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Whitespace matched by regex {@code \s}
+     */
+    private static boolean isWhitespace(CharSequence text, int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+        var c = text.charAt(index);
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Line terminators which are not matched by regex {@code \s}
+     */
+    private static boolean isUnicodeLineTerminator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     public abstract String getFileExtension();
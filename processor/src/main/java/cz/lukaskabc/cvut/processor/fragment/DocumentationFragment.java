@@ -0,0 +1,253 @@
+package cz.lukaskabc.cvut.processor.fragment;
+
+import cz.lukaskabc.cvut.processor.DecoratorSnapshot;
+import cz.lukaskabc.cvut.processor.Log;
+
+import javax.annotation.processing.Filer;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Snapshots of options documented in a single module (compilation).
+ * <p>
+ * The fragment is stored as {@value #RESOURCE_NAME} in the class output,
+ * so it is packaged with the module and documentation of multiple modules can be aggregated
+ * from the classpath without scanning their sources again.
+ * <p>
+ * Fields of the snapshots are written explicitly (not with Java serialization),
+ * as fragments are read from resources of arbitrary jars on the classpath.
+ * Any change of the written fields requires a change of {@link #FORMAT_VERSION}.
+ *
+ * @param properties snapshots of options from classes with {@code @ConfigurationProperties} annotation
+ * @param values     snapshots of elements with {@code @Value} annotation
+ */
+public record DocumentationFragment(List<DecoratorSnapshot> properties,
+                                    List<DecoratorSnapshot> values) {
+
+    /**
+     * Path of the fragment resource relative to the class output (or classpath root)
+     */
+    public static final String RESOURCE_NAME = "META-INF/spring-boot-configuration-docgen/fragment.bin";
+
+    /**
+     * @return path of the fragment resource written by the shard,
+     * {@link #RESOURCE_NAME} when sharding is disabled (with a single shard)
+     */
+    public static String resourceName(int shardIndex, int shardCount) {
+        if (shardCount <= 1) {
+            return RESOURCE_NAME;
+        }
+        return "META-INF/spring-boot-configuration-docgen/fragment-shard-" + shardIndex + "-of-" + shardCount + ".bin";
+    }
+
+    /**
+     * Version of the fragment format, fragments with different version are ignored
+     */
+    private static final int FORMAT_VERSION = 4;
+
+    public DocumentationFragment {
+        properties = List.copyOf(properties);
+        values = List.copyOf(values);
+    }
+
+    /**
+     * Writes the fragment to the class output
+     *
+     * @param resourceName path of the fragment resource (see {@link #resourceName(int, int)})
+     * @param fingerprint  fingerprint of the processor configuration the snapshots were rendered with
+     */
+    public void write(Filer filer, String resourceName, String fingerprint) {
+        try {
+            var resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+            try (var output = new DataOutputStream(new BufferedOutputStream(resource.openOutputStream()))) {
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, fingerprint);
+                writeSnapshots(output, properties);
+                writeSnapshots(output, values);
+            }
+            Log.instance().debug("Documentation fragment written to " + resource.toUri());
+        } catch (IOException e) {
+            Log.instance().warn("Failed to write documentation fragment " + resourceName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads all fragments available on the classpath.
+     * <p>
+     * Fragments are searched with the class loader (which is the annotation processor path)
+     * and in the compilation classpath (where only the first fragment is accessible through the filer).
+     * Explicitly listed fragment files (e.g. written by shards) are read after them.
+     * Fragments created with a different configuration fingerprint are ignored.
+     *
+     * @param classLoader class loader used for searching the fragment resources
+     * @param files       paths of additional fragment files
+     * @param fingerprint fingerprint of the current processor configuration
+     * @return fragments in the order they were found
+     */
+    public static List<DocumentationFragment> readAll(Filer filer, ClassLoader classLoader, List<String> files, String fingerprint) {
+        var sources = new LinkedHashMap<String, InputStreamSupplier>();
+        try {
+            for (var url : Collections.list(classLoader.getResources(RESOURCE_NAME))) {
+                sources.put(url.toString(), url::openStream);
+            }
+        } catch (IOException e) {
+            Log.instance().warn("Failed to search documentation fragments: " + e.getMessage());
+        }
+
+        try {
+            FileObject resource = filer.getResource(StandardLocation.CLASS_PATH, "", RESOURCE_NAME);
+            sources.putIfAbsent(toUrlString(resource), resource::openInputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            // fragment not present in the compilation classpath
+        }
+
+        for (var file : files) {
+            var path = Path.of(file).toAbsolutePath();
+            sources.putIfAbsent(toUrlString(path.toUri()), () -> Files.newInputStream(path));
+        }
+
+        var fragments = new ArrayList<DocumentationFragment>();
+        for (var source : sources.entrySet()) {
+            read(source.getKey(), source.getValue(), fingerprint).ifPresent(fragments::add);
+        }
+        return fragments;
+    }
+
+    private static Optional<DocumentationFragment> read(String location, InputStreamSupplier source, String fingerprint) {
+        try (var input = new DataInputStream(new BufferedInputStream(source.open()))) {
+            var version = input.readInt();
+            if (version != FORMAT_VERSION || !fingerprint.equals(readString(input))) {
+                Log.instance().warn("Ignoring documentation fragment created with different configuration or processor version: " + location);
+                return Optional.empty();
+            }
+
+            var properties = readSnapshots(input);
+            var values = readSnapshots(input);
+            Log.instance().debug("Loaded documentation fragment " + location);
+            return Optional.of(new DocumentationFragment(properties, values));
+        } catch (IOException e) {
+            Log.instance().warn("Failed to read documentation fragment " + location + ", ignoring it: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void writeSnapshots(DataOutputStream output, List<DecoratorSnapshot> snapshots) throws IOException {
+        output.writeInt(snapshots.size());
+        for (var snapshot : snapshots) {
+            writeString(output, snapshot.configOptionName());
+            writeString(output, snapshot.elementName());
+            writeString(output, snapshot.type());
+            writeString(output, snapshot.propertyName());
+            writeDoc(output, snapshot.doc());
+            writeString(output, snapshot.description());
+            output.writeInt(snapshot.additionalDocs().size());
+            for (var doc : snapshot.additionalDocs()) {
+                writeDoc(output, doc);
+            }
+            writeString(output, snapshot.defaultValue());
+            writeString(output, snapshot.constraints());
+            output.writeBoolean(snapshot.required());
+            output.writeBoolean(snapshot.deprecated());
+        }
+    }
+
+    private static List<DecoratorSnapshot> readSnapshots(DataInputStream input) throws IOException {
+        var count = readCount(input);
+        var snapshots = new ArrayList<DecoratorSnapshot>();
+        for (int i = 0; i < count; i++) {
+            var configOptionName = readString(input);
+            var elementName = readString(input);
+            var type = readString(input);
+            var propertyName = readString(input);
+            var doc = readDoc(input);
+            var description = readString(input);
+            var docsCount = readCount(input);
+            var additionalDocs = new ArrayList<DecoratorSnapshot.DocFragment>();
+            for (int j = 0; j < docsCount; j++) {
+                additionalDocs.add(readDoc(input));
+            }
+            var defaultValue = readString(input);
+            var constraints = readString(input);
+            var required = input.readBoolean();
+            var deprecated = input.readBoolean();
+            snapshots.add(new DecoratorSnapshot(configOptionName, elementName, type, propertyName, doc, description, additionalDocs,
+                    defaultValue, constraints, required, deprecated));
+        }
+        return snapshots;
+    }
+
+    private static void writeDoc(DataOutputStream output, DecoratorSnapshot.DocFragment doc) throws IOException {
+        output.writeBoolean(doc != null);
+        if (doc != null) {
+            writeString(output, doc.text());
+            output.writeBoolean(doc.hidden());
+        }
+    }
+
+    private static DecoratorSnapshot.DocFragment readDoc(DataInputStream input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        return new DecoratorSnapshot.DocFragment(readString(input), input.readBoolean());
+    }
+
+    /**
+     * Writes nullable string as its length (-1 for null) followed by UTF-8 bytes
+     * ({@link DataOutputStream#writeUTF} is limited to 64 kB)
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        var length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < -1) {
+            throw new IOException("Invalid string length " + length);
+        }
+        var bytes = input.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(DataInputStream input) throws IOException {
+        var count = input.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    private static String toUrlString(FileObject resource) {
+        return toUrlString(resource.toUri());
+    }
+
+    private static String toUrlString(URI uri) {
+        try {
+            return uri.toURL().toString();
+        } catch (IOException | IllegalArgumentException e) {
+            return uri.toString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface InputStreamSupplier {
+        InputStream open() throws IOException;
+    }
+}
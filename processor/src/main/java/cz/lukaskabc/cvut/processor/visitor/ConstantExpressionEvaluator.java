@@ -0,0 +1,309 @@
+package cz.lukaskabc.cvut.processor.visitor;
+
+import com.sun.source.tree.*;
+import com.sun.source.util.SimpleTreeVisitor;
+
+import javax.lang.model.element.Element;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Evaluates constant expressions in source trees without loading any classes.
+ * <p>
+ * Supports literals, variables (resolved by the provided resolver), string concatenation,
+ * arithmetic, bitwise, relational and logical operators, casts to primitive types and conditional expressions.
+ * Operands are promoted by the Java binary numeric promotion rules.
+ * Visitor returns null when the expression is not constant.
+ */
+class ConstantExpressionEvaluator extends SimpleTreeVisitor<Object, Element> {
+
+    /**
+     * Resolves the value of an identifier or member select expression in the context element,
+     * returns null when the value is not constant
+     */
+    private final BiFunction<ExpressionTree, Element, Object> variableResolver;
+
+    ConstantExpressionEvaluator(BiFunction<ExpressionTree, Element, Object> variableResolver) {
+        this.variableResolver = variableResolver;
+    }
+
+    /**
+     * @param tree    expression to evaluate
+     * @param context element in which context the expression is evaluated
+     * @return boxed constant value or empty optional when the expression is not constant
+     */
+    public Optional<Object> evaluate(Tree tree, Element context) {
+        return Optional.ofNullable(visit(tree, context));
+    }
+
+    @Override
+    public Object visitLiteral(LiteralTree node, Element context) {
+        return node.getValue();
+    }
+
+    @Override
+    public Object visitParenthesized(ParenthesizedTree node, Element context) {
+        return visit(node.getExpression(), context);
+    }
+
+    @Override
+    public Object visitIdentifier(IdentifierTree node, Element context) {
+        return variableResolver.apply(node, context);
+    }
+
+    @Override
+    public Object visitMemberSelect(MemberSelectTree node, Element context) {
+        return variableResolver.apply(node, context);
+    }
+
+    @Override
+    public Object visitConditionalExpression(ConditionalExpressionTree node, Element context) {
+        if (visit(node.getCondition(), context) instanceof Boolean condition) {
+            return visit(condition ? node.getTrueExpression() : node.getFalseExpression(), context);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitTypeCast(TypeCastTree node, Element context) {
+        var value = visit(node.getExpression(), context);
+        if (value == null || node.getType().getKind() != Tree.Kind.PRIMITIVE_TYPE) {
+            return value;
+        }
+
+        var number = value instanceof Character c ? Integer.valueOf(c) : value;
+        if (!(number instanceof Number n)) {
+            return value; // boolean
+        }
+
+        return switch (((PrimitiveTypeTree) node.getType()).getPrimitiveTypeKind()) {
+            case BYTE -> n.byteValue();
+            case SHORT -> n.shortValue();
+            case INT -> n.intValue();
+            case LONG -> n.longValue();
+            case FLOAT -> n.floatValue();
+            case DOUBLE -> n.doubleValue();
+            case CHAR -> (char) n.intValue();
+            default -> null;
+        };
+    }
+
+    @Override
+    public Object visitUnary(UnaryTree node, Element context) {
+        var value = visit(node.getExpression(), context);
+        if (value instanceof Boolean b) {
+            return node.getKind() == Tree.Kind.LOGICAL_COMPLEMENT ? !b : null;
+        }
+
+        var number = promote(value);
+        if (number == null) {
+            return null;
+        }
+
+        return switch (node.getKind()) {
+            case UNARY_PLUS -> number;
+            case UNARY_MINUS -> negate(number);
+            case BITWISE_COMPLEMENT -> {
+                if (number instanceof Long l) yield ~l;
+                if (number instanceof Integer i) yield ~i;
+                yield null;
+            }
+            default -> null;
+        };
+    }
+
+    @Override
+    public Object visitBinary(BinaryTree node, Element context) {
+        var left = visit(node.getLeftOperand(), context);
+        if (left == null) {
+            return null;
+        }
+
+        // short circuit evaluation
+        if (left instanceof Boolean l && (node.getKind() == Tree.Kind.CONDITIONAL_AND || node.getKind() == Tree.Kind.CONDITIONAL_OR)) {
+            if (l == (node.getKind() == Tree.Kind.CONDITIONAL_OR)) {
+                return l;
+            }
+            return visit(node.getRightOperand(), context) instanceof Boolean r ? r : null;
+        }
+
+        var right = visit(node.getRightOperand(), context);
+        if (right == null) {
+            return null;
+        }
+
+        if (node.getKind() == Tree.Kind.PLUS && (left instanceof String || right instanceof String)) {
+            return String.valueOf(left) + right;
+        }
+
+        if (left instanceof Boolean l && right instanceof Boolean r) {
+            return switch (node.getKind()) {
+                case AND -> l & r;
+                case OR -> l | r;
+                case XOR -> l ^ r;
+                case EQUAL_TO -> l.equals(r);
+                case NOT_EQUAL_TO -> !l.equals(r);
+                default -> null;
+            };
+        }
+
+        var l = promote(left);
+        var r = promote(right);
+        if (l == null || r == null) {
+            return null;
+        }
+
+        return switch (node.getKind()) {
+            case LEFT_SHIFT, RIGHT_SHIFT, UNSIGNED_RIGHT_SHIFT -> shift(node.getKind(), l, r);
+            default -> evaluateNumeric(node.getKind(), l, r);
+        };
+    }
+
+    @Override
+    protected Object defaultAction(Tree node, Element context) {
+        return null;
+    }
+
+    /**
+     * Unary numeric promotion, converts byte, short and char to int
+     *
+     * @return promoted number or null when the value is not a number
+     */
+    private static Number promote(Object value) {
+        if (value instanceof Character c) {
+            return (int) c;
+        }
+        if (value instanceof Byte || value instanceof Short) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Number n) {
+            return n;
+        }
+        return null;
+    }
+
+    private static Number negate(Number number) {
+        if (number instanceof Double d) {
+            return -d;
+        }
+        if (number instanceof Float f) {
+            return -f;
+        }
+        if (number instanceof Long l) {
+            return -l;
+        }
+        return -number.intValue();
+    }
+
+    private static Object shift(Tree.Kind kind, Number value, Number distance) {
+        if (value instanceof Long l) {
+            return switch (kind) {
+                case LEFT_SHIFT -> l << distance.longValue();
+                case RIGHT_SHIFT -> l >> distance.longValue();
+                default -> l >>> distance.longValue();
+            };
+        }
+        if (value instanceof Integer i) {
+            return switch (kind) {
+                case LEFT_SHIFT -> i << distance.longValue();
+                case RIGHT_SHIFT -> i >> distance.longValue();
+                default -> i >>> distance.longValue();
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates numeric operation after binary numeric promotion of the operands
+     */
+    private static Object evaluateNumeric(Tree.Kind kind, Number left, Number right) {
+        if (left instanceof Double || right instanceof Double) {
+            double l = left.doubleValue(), r = right.doubleValue();
+            return switch (kind) {
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case REMAINDER -> l % r;
+                case PLUS -> l + r;
+                case MINUS -> l - r;
+                default -> compare(kind, l, r);
+            };
+        }
+        if (left instanceof Float || right instanceof Float) {
+            float l = left.floatValue(), r = right.floatValue();
+            return switch (kind) {
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case REMAINDER -> l % r;
+                case PLUS -> l + r;
+                case MINUS -> l - r;
+                default -> compare(kind, l, r);
+            };
+        }
+        if (left instanceof Long || right instanceof Long) {
+            long l = left.longValue(), r = right.longValue();
+            if (r == 0 && (kind == Tree.Kind.DIVIDE || kind == Tree.Kind.REMAINDER)) {
+                return null;
+            }
+            return switch (kind) {
+                case MULTIPLY -> l * r;
+                case DIVIDE -> l / r;
+                case REMAINDER -> l % r;
+                case PLUS -> l + r;
+                case MINUS -> l - r;
+                case AND -> l & r;
+                case OR -> l | r;
+                case XOR -> l ^ r;
+                default -> compare(kind, Long.compare(l, r), l == r);
+            };
+        }
+
+        int l = left.intValue(), r = right.intValue();
+        if (r == 0 && (kind == Tree.Kind.DIVIDE || kind == Tree.Kind.REMAINDER)) {
+            return null;
+        }
+        return switch (kind) {
+            case MULTIPLY -> l * r;
+            case DIVIDE -> l / r;
+            case REMAINDER -> l % r;
+            case PLUS -> l + r;
+            case MINUS -> l - r;
+            case AND -> l & r;
+            case OR -> l | r;
+            case XOR -> l ^ r;
+            default -> compare(kind, Integer.compare(l, r), l == r);
+        };
+    }
+
+    /**
+     * Compares floating point operands with the primitive operators,
+     * so NaN and signed zeros follow the Java semantics (unlike {@link Double#compare(double, double)})
+     */
+    private static Boolean compare(Tree.Kind kind, double l, double r) {
+        return switch (kind) {
+            case LESS_THAN -> l < r;
+            case LESS_THAN_EQUAL -> l <= r;
+            case GREATER_THAN -> l > r;
+            case GREATER_THAN_EQUAL -> l >= r;
+            case EQUAL_TO -> l == r;
+            case NOT_EQUAL_TO -> l != r;
+            default -> null;
+        };
+    }
+
+    /**
+     * @param comparison result of the compare method of integral operands
+     * @param equal      result of {@code ==} operator
+     * @return result of relational operator or null when the kind is not a relational operator
+     */
+    private static Boolean compare(Tree.Kind kind, int comparison, boolean equal) {
+        return switch (kind) {
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_EQUAL -> comparison <= 0;
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_EQUAL -> comparison >= 0;
+            case EQUAL_TO -> equal;
+            case NOT_EQUAL_TO -> !equal;
+            default -> null;
+        };
+    }
+}
@@ -5,11 +5,12 @@ import com.sun.source.tree.*;
 import com.sun.source.util.SimpleTreeVisitor;
 import cz.lukaskabc.cvut.processor.ElementDecorator;
 import cz.lukaskabc.cvut.processor.EnvironmentUtils;
-import cz.lukaskabc.cvut.processor.descriptor.AbstractPropertyDescriptor;
 import cz.lukaskabc.cvut.processor.descriptor.AnnotatedConstructorPropertyDescriptor;
+import cz.lukaskabc.cvut.processor.descriptor.ConstructorIndex;
 import cz.lukaskabc.cvut.processor.descriptor.SingleConstructorPropertyDescriptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
@@ -18,9 +19,10 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
+import javax.tools.JavaFileObject;
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,16 +32,91 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
 
     private static final String NULL = "null";
 
+    /**
+     * Spring Boot duration units of {@link Duration} factory methods
+     */
+    private static final Map<String, String> DURATION_UNITS = Map.of(
+            "ofNanos", "ns",
+            "ofMillis", "ms",
+            "ofSeconds", "s",
+            "ofMinutes", "m",
+            "ofHours", "h",
+            "ofDays", "d");
+
+    /**
+     * Spring data size units of {@link DataSize} factory methods
+     */
+    private static final Map<String, String> DATA_SIZE_UNITS = Map.of(
+            "ofBytes", "B",
+            "ofKilobytes", "KB",
+            "ofMegabytes", "MB",
+            "ofGigabytes", "GB",
+            "ofTerabytes", "TB");
+
     private final EnvironmentUtils envUtils;
 
     private final AnnotatedConstructorPropertyDescriptor annotatedConstructorPropertyDescriptor;
 
     private final SingleConstructorPropertyDescriptor singleConstructorPropertyDescriptor;
 
-    public DefaultValueCollector(EnvironmentUtils envUtils) {
+    /**
+     * Elements whose source trees were visited while resolving default values
+     */
+    private final Set<Element> resolvedElements = new LinkedHashSet<>();
+
+    /**
+     * Import indexes of visited compilation units
+     */
+    private final Map<JavaFileObject, ImportIndex> importIndexes = new HashMap<>();
+
+    /**
+     * Types from {@code java.lang} package mapped by their simple name, initialized on first use
+     */
+    private Map<String, TypeElement> javaLangTypes = null;
+
+    /**
+     * Index of symbols used for resolving identifiers in initializers
+     */
+    private final SymbolIndex symbolIndex = new SymbolIndex();
+
+    /**
+     * Evaluator of constant expressions in initializers
+     */
+    private final ConstantExpressionEvaluator constantEvaluator = new ConstantExpressionEvaluator(this::resolveConstantVariable);
+
+    /**
+     * Variables whose initializers are being evaluated, prevents infinite recursion
+     */
+    private final Set<Element> evaluatedVariables = new HashSet<>();
+
+    /**
+     * Whether compiled classes from outside the JDK may be loaded to read values of their static fields
+     */
+    private final boolean loadClasses;
+
+    /**
+     * @param loadClasses whether compiled classes from outside the JDK may be loaded
+     *                    to read values of their static fields which are not compile time constants
+     */
+    public DefaultValueCollector(EnvironmentUtils envUtils, ConstructorIndex constructorIndex, boolean loadClasses) {
         this.envUtils = envUtils;
-        this.annotatedConstructorPropertyDescriptor = new AnnotatedConstructorPropertyDescriptor(envUtils);
-        this.singleConstructorPropertyDescriptor = new SingleConstructorPropertyDescriptor(envUtils);
+        this.loadClasses = loadClasses;
+        this.annotatedConstructorPropertyDescriptor = new AnnotatedConstructorPropertyDescriptor(envUtils, constructorIndex);
+        this.singleConstructorPropertyDescriptor = new SingleConstructorPropertyDescriptor(envUtils, constructorIndex);
+    }
+
+    /**
+     * @return elements whose source trees were visited since the last call, the set is cleared afterward
+     */
+    public Set<Element> drainResolvedElements() {
+        var elements = new LinkedHashSet<>(resolvedElements);
+        resolvedElements.clear();
+        return elements;
+    }
+
+    private Tree getTree(Element element) {
+        resolvedElements.add(element);
+        return envUtils.trees().getTree(element);
     }
 
     private Optional<VariableElement> findConstructorParameterForAttribute(Element attribute) {
@@ -50,13 +127,13 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
         if (annotatedConstructorPropertyDescriptor.isProperty(variable)) {
             var constructor = annotatedConstructorPropertyDescriptor.getConstructor((TypeElement) attribute.getEnclosingElement());
             if (constructor.isPresent()) {
-                return AbstractPropertyDescriptor.getMethodParam(constructor.get(), variable.getSimpleName().toString(), variable.asType(), envUtils.types());
+                return annotatedConstructorPropertyDescriptor.getConstructorParam(constructor.get(), variable);
             }
         }
 
         if (singleConstructorPropertyDescriptor.isProperty(variable)) {
             var constructor = singleConstructorPropertyDescriptor.getConstructors((TypeElement) attribute.getEnclosingElement()).get(0);
-            return AbstractPropertyDescriptor.getMethodParam(constructor, variable.getSimpleName().toString(), variable.asType(), envUtils.types());
+            return singleConstructorPropertyDescriptor.getConstructorParam(constructor, variable);
         }
 
         return Optional.empty();
@@ -109,7 +186,7 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
             }
         }
 
-        var tree = envUtils.trees().getTree(element);
+        var tree = getTree(element);
         var value = this.visit(tree, element);
         if (value == null || value.equals("Optional.empty()"))
             return null;
@@ -180,6 +257,10 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
     public Object visitMethodInvocation(MethodInvocationTree node, Element original) {
         if (node.getMethodSelect().getKind() == Tree.Kind.MEMBER_SELECT) {
             var methodName = ((MemberSelectTree) node.getMethodSelect()).getIdentifier();
+            var unitValue = evaluateUnitFactory((MemberSelectTree) node.getMethodSelect(), node.getArguments(), original);
+            if (unitValue.isPresent()) {
+                return unitValue.get();
+            }
             if (FACTORY_METHODS.contains(methodName.toString())
                     && node.getArguments().size() == 1) {
                 return this.visit(node.getArguments().get(0), original);
@@ -191,25 +272,92 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
         return node.toString();
     }
 
+    /**
+     * Evaluates {@link Duration} and {@link DataSize} factory methods with constant argument
+     * (like {@code Duration.ofSeconds(30)}) to the value in Spring Boot format (like {@code 30s})
+     */
+    private Optional<String> evaluateUnitFactory(MemberSelectTree methodSelect, List<? extends ExpressionTree> arguments, Element original) {
+        var methodName = methodSelect.getIdentifier().toString();
+        var unit = DURATION_UNITS.containsKey(methodName) ? DURATION_UNITS.get(methodName) : DATA_SIZE_UNITS.get(methodName);
+        if (unit == null || arguments.size() != 1) {
+            return Optional.empty();
+        }
+
+        var className = DURATION_UNITS.containsKey(methodName) ? Duration.class.getCanonicalName() : DataSize.class.getCanonicalName();
+        var expression = methodSelect.getExpression().toString();
+        if (!expression.equals(className) && !resolveClassImports(expression, original).contains(className)) {
+            return Optional.empty();
+        }
+
+        var amount = constantEvaluator.evaluate(arguments.get(0), original);
+        if (amount.isPresent() && (amount.get() instanceof Long || amount.get() instanceof Integer)) {
+            return Optional.of(amount.get() + unit);
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Object visitIdentifier(IdentifierTree node, Element original) {
         var element = resolveFieldInContext(node.toString(), original);
         if (element.isPresent()) {
-            var tree = envUtils.trees().getTree(element.get());
-            return this.visit(tree, original);
+            var constant = getConstantValue(element.get());
+            if (constant != null) {
+                return constant.toString();
+            }
+
+            // the initializer is evaluated in the scope of the field (which may be inherited from another source)
+            var tree = getTree(element.get());
+            return this.visit(tree, element.get());
         }
 
         var candidates = resolveClassImports(node.toString(), original);
         for (var candidate : candidates) {
-            var value = attemptStaticFieldReflection(candidate, node.toString());
-            if (value.isPresent()) {
-                return value.get();
+            var field = resolveStaticField(candidate, node.toString());
+            if (field.isPresent()) {
+                var value = findStaticFieldValue(field.get());
+                if (value.isPresent()) {
+                    return value.get();
+                }
             }
         }
 
         return node.toString();
     }
 
+    /**
+     * Visits binary expression, evaluates it when it is constant
+     */
+    @Override
+    public Object visitBinary(BinaryTree node, Element original) {
+        return constantEvaluator.evaluate(node, original).map(Object::toString).orElseGet(node::toString);
+    }
+
+    /**
+     * Visits unary expression, evaluates it when it is constant
+     */
+    @Override
+    public Object visitUnary(UnaryTree node, Element original) {
+        return constantEvaluator.evaluate(node, original).map(Object::toString).orElseGet(node::toString);
+    }
+
+    @Override
+    public Object visitParenthesized(ParenthesizedTree node, Element original) {
+        return this.visit(node.getExpression(), original);
+    }
+
+    /**
+     * condition ? trueExpression : falseExpression<br>
+     * visits the expression selected by the condition when the condition is constant
+     */
+    @Override
+    public Object visitConditionalExpression(ConditionalExpressionTree node, Element original) {
+        var condition = constantEvaluator.evaluate(node.getCondition(), original);
+        if (condition.isPresent() && condition.get() instanceof Boolean value) {
+            return this.visit(value ? node.getTrueExpression() : node.getFalseExpression(), original);
+        }
+        return node.toString();
+    }
+
     /**
      * expression . memberName
      */
@@ -221,9 +369,12 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
 
         var candidates = resolveClassImports(node.getExpression().toString(), original);
         for (var candidate : candidates) {
-            var value = attemptStaticFieldReflection(candidate, node.getIdentifier().toString());
-            if (value.isPresent()) {
-                return value.get();
+            var field = resolveStaticField(candidate, node.getIdentifier().toString());
+            if (field.isPresent()) {
+                var value = findStaticFieldValue(field.get());
+                if (value.isPresent()) {
+                    return value.get();
+                }
             }
         }
 
@@ -232,10 +383,16 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
         var expressionElement = resolveClassInPackage(node.getExpression().toString(), original);
         if (expressionElement.isPresent()) {
             var member = resolveFieldInContext(node.getIdentifier().toString(), expressionElement.get());
-            if (member.isPresent()) {
-                var tree = envUtils.trees().getTree(member.get());
-                if (tree != null) {
-                    return this.visit(tree, original);
+            if (member.isPresent() && member.get().getKind().isField()) {
+                var field = (VariableElement) member.get();
+                var tree = getTree(field);
+                if (tree != null && field.getKind() != ElementKind.ENUM_CONSTANT && getConstantValue(field) == null) {
+                    return this.visit(tree, field);
+                }
+
+                var value = findStaticFieldValue(field);
+                if (value.isPresent()) {
+                    return value.get();
                 }
             }
         }
@@ -264,60 +421,157 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
      * @return List with direct import of the class or list with all wildcard imports with the class name appended instead of the asterisk
      */
     private List<String> resolveClassImports(String classIdentifier, Element context) {
-        var contextPath = envUtils.trees().getPath(context);
+        var compilationUnit = envUtils.trees().getPath(context).getCompilationUnit();
+        return importIndexes.computeIfAbsent(compilationUnit.getSourceFile(), file -> new ImportIndex(compilationUnit))
+                .resolve(classIdentifier, this::resolveClassFromJavaLang);
+    }
 
-        var imports = contextPath.getCompilationUnit().getImports().stream()
-                .map(i -> i.getQualifiedIdentifier().toString())
-                .distinct().toList();
+    private Optional<String> resolveClassFromJavaLang(String className) {
+        if (javaLangTypes == null) {
+            javaLangTypes = new HashMap<>();
+            var javaLang = envUtils.elements().getPackageElement("java.lang");
+            if (javaLang != null) { // would be strange otherwise
+                for (var element : javaLang.getEnclosedElements()) {
+                    if (element instanceof TypeElement type) {
+                        javaLangTypes.put(type.getSimpleName().toString(), type);
+                    }
+                }
+            }
+        }
 
-        var directImport = imports.stream().filter(i -> i.endsWith("." + classIdentifier)).toList();
+        // class name might be followed by the nested class names
+        var path = className.split("\\.");
+        Element target = javaLangTypes.get(path[0]);
+        for (int i = 1; i < path.length && target != null; i++) {
+            var pathName = path[i];
+            target = target.getEnclosedElements().stream()
+                    .filter(e -> e.getSimpleName().toString().equals(pathName))
+                    .findAny().orElse(null);
+        }
 
-        if (!directImport.isEmpty())
-            return directImport;
+        if (target instanceof TypeElement type) {
+            return Optional.of(type.getQualifiedName().toString());
+        }
+        return Optional.empty();
+    }
 
-        var javaLangPart = resolveClassFromJavaLang(classIdentifier);
-        if (javaLangPart.isPresent()) {
-            return List.of(javaLangPart.get());
+    /**
+     * Resolves the static field of the class
+     *
+     * @param classIdentifier qualified name of the class or qualified name of the field itself (from static import)
+     * @return field or empty optional
+     */
+    private Optional<VariableElement> resolveStaticField(String classIdentifier, String classMember) {
+        var type = envUtils.elements().getTypeElement(classIdentifier);
+        if (type == null && classIdentifier.lastIndexOf('.') > 0) {
+            // in case that import is made directly so the last part is identifier of static field
+            // strip the last segment after last dot and try with class identifier
+            type = envUtils.elements().getTypeElement(classIdentifier.substring(0, classIdentifier.lastIndexOf('.')));
+        }
+        if (type == null) {
+            return Optional.empty();
         }
 
-        // java.lang does not require imports, so add it here
-        return imports.stream()
-                .filter(i -> i.endsWith(".*"))
-                .map(i -> i.substring(0, i.length() - 1) + classIdentifier)
-                .distinct().toList();
+        return symbolIndex.resolveMember(classMember, type)
+                .filter(e -> e.getKind().isField())
+                .map(VariableElement.class::cast);
     }
 
-    private Optional<String> resolveClassFromJavaLang(String className) {
-        var javaLang = envUtils.elements().getPackageElement("java.lang");
-        if (javaLang == null) {
-            // that would be strange
-            return Optional.empty();
+    /**
+     * Finds value of the static field from its constant value, its source or using reflection
+     * (reflection is used only for JDK classes when {@link #loadClasses} is disabled).
+     * The initializer of the field is evaluated in the scope of the field (its class and imports).
+     *
+     * @return field value as string or empty optional
+     */
+    private Optional<String> findStaticFieldValue(VariableElement field) {
+        if (field.getKind() == ElementKind.ENUM_CONSTANT) {
+            return Optional.of(field.getSimpleName().toString());
         }
 
-        for (var element : javaLang.getEnclosedElements()) {
-            var target = resolveFieldInContext(className, element);
-            if (target.isPresent() && target.get() instanceof TypeElement type) {
-                return Optional.of(type.getQualifiedName().toString());
-            }
+        var constant = getConstantValue(field);
+        if (constant != null) {
+            return Optional.of(constant.toString());
         }
-        return Optional.empty();
+
+        var tree = getTree(field);
+        if (tree != null) {
+            return Optional.ofNullable(this.visit(tree, field)).map(Object::toString);
+        }
+
+        var type = (TypeElement) field.getEnclosingElement();
+        var className = envUtils.elements().getBinaryName(type).toString();
+        if (loadClasses || className.startsWith("java.")) {
+            return getStaticFieldStringValue(className, field.getSimpleName().toString());
+        }
+
+        // the initializer is available only in the bytecode,
+        // the field is documented with its class name regardless of how it was referenced
+        var packageName = envUtils.elements().getPackageOf(type).getQualifiedName().toString();
+        var simpleClassName = packageName.isEmpty() ? type.getQualifiedName().toString()
+                : type.getQualifiedName().toString().substring(packageName.length() + 1);
+        return Optional.of(simpleClassName + "." + field.getSimpleName());
     }
 
     /**
-     * Attempts to resolve the class and acquire the static field value
+     * @return compile time constant value of the variable or null
+     */
+    private Object getConstantValue(Element element) {
+        if (element instanceof VariableElement variable && variable.getConstantValue() != null) {
+            resolvedElements.add(element);
+            return variable.getConstantValue();
+        }
+        return null;
+    }
+
+    /**
+     * Resolves value of the variable referenced by identifier or member select for {@link #constantEvaluator}
      *
-     * @return field value as string or empty optional
+     * @return constant value of the variable or null
      */
-    private Optional<String> attemptStaticFieldReflection(String classIdentifier, String classMember) {
-        var value = getStaticFieldStringValue(classIdentifier, classMember);
-        if (value.isEmpty()) {
-            // in case that import is made directly so the last part is identifier of static field
-            // strip the last segment after last dot and try reflection with class identifier
-            var stripedIdentifier = classIdentifier.substring(0, classIdentifier.lastIndexOf('.'));
-            value = getStaticFieldStringValue(stripedIdentifier, classMember);
+    private Object resolveConstantVariable(ExpressionTree node, Element context) {
+        Optional<? extends Element> variable = Optional.empty();
+        if (node instanceof IdentifierTree identifier) {
+            variable = resolveFieldInContext(identifier.getName().toString(), context);
+            if (variable.isEmpty()) {
+                for (var candidate : resolveClassImports(identifier.getName().toString(), context)) {
+                    variable = resolveStaticField(candidate, identifier.getName().toString());
+                    if (variable.isPresent()) break;
+                }
+            }
+        } else if (node instanceof MemberSelectTree memberSelect) {
+            var expression = memberSelect.getExpression().toString();
+            var member = memberSelect.getIdentifier().toString();
+            for (var candidate : resolveClassImports(expression, context)) {
+                variable = resolveStaticField(candidate, member);
+                if (variable.isPresent()) break;
+            }
+            if (variable.isEmpty()) {
+                variable = resolveStaticField(expression, member);
+            }
+            if (variable.isEmpty()) {
+                variable = resolveClassInPackage(expression, context).flatMap(type -> resolveFieldInContext(member, type));
+            }
         }
 
-        return value;
+        if (variable.isEmpty() || !variable.get().getKind().isField()) {
+            return null;
+        }
+
+        var constant = getConstantValue(variable.get());
+        if (constant != null) {
+            return constant;
+        }
+
+        // evaluate the initializer of the variable in its own context
+        if (getTree(variable.get()) instanceof VariableTree tree && tree.getInitializer() != null && evaluatedVariables.add(variable.get())) {
+            try {
+                return constantEvaluator.evaluate(tree.getInitializer(), variable.get()).orElse(null);
+            } finally {
+                evaluatedVariables.remove(variable.get());
+            }
+        }
+        return null;
     }
 
     private Optional<String> getStaticFieldStringValue(String classIdentifier, String classMember) {
@@ -412,68 +666,11 @@ public class DefaultValueCollector extends SimpleTreeVisitor<Object, Element> {
     }
 
     private Optional<Element> resolveClassInPackage(String className, Element original) {
-        return resolveElementInContext(className, original, e -> e.getKind() == ElementKind.PACKAGE);
+        return symbolIndex.resolveType(className, original);
     }
 
     private Optional<Element> resolveFieldInContext(String fieldName, Element original) {
-        return resolveElementInContext(fieldName, original, e -> e.getKind().isClass());
-    }
-
-    /**
-     * Resolves if there is an element matching given name in the given element, its parents or its children
-     *
-     * @param name name is split by dot and used as a path in the element tree
-     */
-    private Optional<Element> resolveElementInContext(String name, Element original, Predicate<Element> shouldAddEnclosed) {
-        var path = name.split("\\.");
-        var topLevel = path[0];
-        var enclosingElement = original;
-        var stack = new LinkedList<Element>();
-
-        // add all parents to the stack
-        while (enclosingElement.getEnclosingElement() != null) {
-            enclosingElement = enclosingElement.getEnclosingElement();
-            // later parents should go later so add them to the beginning of the stack
-            stack.addFirst(enclosingElement);
-        }
-
-        // add current context as last to the stack (first to be taken)
-        stack.addLast(original);
-        // top level element matching the path
-        Element topLevelElement = null;
-        while (!stack.isEmpty()) {
-            var element = stack.pollLast(); // take last element from stack
-            // add all children to the END of the stack (so they are last and will be taken right next round)
-            // -> visiting children first and parent later
-            if (shouldAddEnclosed.test(element))
-                stack.addAll(element.getEnclosedElements());
-
-            // if name matches, break the loop
-            if (element.getSimpleName().toString().equals(topLevel)) {
-                topLevelElement = element;
-                break;
-            }
-        }
-        stack.clear();
-
-        if (topLevelElement == null) {
-            return Optional.empty();
-        }
-
-        // search the topLevelElement from the path for children matching each part of the path
-        var pathElement = topLevelElement;
-        for (int i = 1; i < path.length; i++) {
-            var pathName = path[i];
-            var element = pathElement.getEnclosedElements().stream()
-                    .filter(e -> e.getSimpleName().toString().equals(pathName))
-                    .findAny();
-
-            if (element.isEmpty()) {
-                return Optional.empty();
-            }
-            pathElement = element.get();
-        }
-        return Optional.of(pathElement);
+        return symbolIndex.resolveMember(fieldName, original);
     }
 
     @Override
@@ -0,0 +1,70 @@
+package cz.lukaskabc.cvut.processor.visitor;
+
+import com.sun.source.tree.CompilationUnitTree;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Index of imports declared in a single compilation unit
+ * used for resolving qualified names of identifiers in the unit
+ */
+class ImportIndex {
+
+    /**
+     * Imports mapped by each dot separated suffix of their qualified name
+     * ({@code a.b.C} is mapped by {@code C} and {@code b.C})
+     */
+    private final Map<String, List<String>> importsBySuffix = new HashMap<>();
+
+    /**
+     * Wildcard imports without the asterisk ({@code a.b.*} is stored as {@code a.b.})
+     */
+    private final List<String> wildcardPrefixes = new ArrayList<>();
+
+    /**
+     * Already resolved candidates mapped by the identifier
+     */
+    private final Map<String, List<String>> resolved = new HashMap<>();
+
+    ImportIndex(CompilationUnitTree compilationUnit) {
+        var imports = new LinkedHashSet<String>();
+        for (var importTree : compilationUnit.getImports()) {
+            imports.add(importTree.getQualifiedIdentifier().toString());
+        }
+
+        for (var qualifiedName : imports) {
+            for (int dot = qualifiedName.indexOf('.'); dot >= 0; dot = qualifiedName.indexOf('.', dot + 1)) {
+                importsBySuffix.computeIfAbsent(qualifiedName.substring(dot + 1), k -> new ArrayList<>()).add(qualifiedName);
+            }
+
+            if (qualifiedName.endsWith(".*")) {
+                wildcardPrefixes.add(qualifiedName.substring(0, qualifiedName.length() - 1));
+            }
+        }
+    }
+
+    /**
+     * Resolves candidates for qualified name of the class identifier
+     *
+     * @param classIdentifier simple class name or a dot separated path starting with simple class name
+     * @param javaLangResolver resolves the identifier to the qualified name of a class from {@code java.lang} package
+     * @return List with direct import of the class or list with all wildcard imports with the class name appended instead of the asterisk
+     */
+    List<String> resolve(String classIdentifier, Function<String, Optional<String>> javaLangResolver) {
+        return resolved.computeIfAbsent(classIdentifier, identifier -> {
+            var directImports = importsBySuffix.get(identifier);
+            if (directImports != null) {
+                return List.copyOf(directImports);
+            }
+
+            // java.lang does not require imports, so add it here
+            var javaLangPart = javaLangResolver.apply(identifier);
+            if (javaLangPart.isPresent()) {
+                return List.of(javaLangPart.get());
+            }
+
+            return wildcardPrefixes.stream().map(prefix -> prefix + identifier).toList();
+        });
+    }
+}
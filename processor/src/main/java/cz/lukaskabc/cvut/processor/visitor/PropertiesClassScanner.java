@@ -21,10 +21,7 @@ import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementScanner14;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Stream;
 
 /**
@@ -34,11 +31,21 @@ import java.util.stream.Stream;
  */
 public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesClassScanner.Params> {
 
+    /**
+     * Names of static factory methods used by Spring for conversion from {@code String}
+     */
+    private static final Set<String> STRING_FACTORY_METHODS = Set.of("valueOf", "of", "from");
+
     /**
      * Spring boot conversion service implementation
      */
     private final ConversionService conversionService = new ApplicationConversionService();
 
+    /**
+     * Results of {@link #isSpringConvertible(TypeElement)} mapped by qualified type name
+     */
+    private final Map<String, Boolean> springConvertibleTypes = new HashMap<>();
+
     /**
      * General property descriptor chain
      */
@@ -77,13 +84,24 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
 
     private final String envPrefix;
 
-    public PropertiesClassScanner(EnvironmentUtils envUtils, boolean requirePropertyGetters, String envPrefix, boolean splitOptionsOnCapital) {
+    /**
+     * Types visited since the last call of {@link #drainVisitedTypes()}
+     */
+    private final Set<TypeElement> visitedTypes = new LinkedHashSet<>();
+
+    /**
+     * Properties of nested types scanned in the current configuration class,
+     * reused for every property with the same nested type
+     */
+    private final Map<TemplateKey, TypeTemplate> typeTemplates = new HashMap<>();
+
+    public PropertiesClassScanner(EnvironmentUtils envUtils, ConstructorIndex constructorIndex, boolean requirePropertyGetters, String envPrefix, boolean splitOptionsOnCapital) {
         this.envUtils = envUtils;
         this.envPrefix = envPrefix;
         this.splitOptionsOnCapital = splitOptionsOnCapital;
 
-        var annotatedConstructor = new AnnotatedConstructorPropertyDescriptor(envUtils);
-        var singleConstructor = new SingleConstructorPropertyDescriptor(envUtils);
+        var annotatedConstructor = new AnnotatedConstructorPropertyDescriptor(envUtils, constructorIndex);
+        var singleConstructor = new SingleConstructorPropertyDescriptor(envUtils, constructorIndex);
         var possiblePropertyDescriptor = new PossiblePropertyDescriptor();
         var collectionDescriptor = new CollectionPropertyDescriptor(envUtils);
         var javabean = new JavaBeanPropertyDescriptor(requirePropertyGetters);
@@ -117,8 +135,8 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
         this.collectionPropertyDescriptor = collectionDescriptor;
         this.javabeanPropertyDescriptor = possiblePropertyDescriptor;
 
-        this.annotatedConstructorDescriptor = new AnnotatedConstructorPropertyDescriptor(envUtils);
-        this.singleConstructorDescriptor = new SingleConstructorPropertyDescriptor(envUtils);
+        this.annotatedConstructorDescriptor = new AnnotatedConstructorPropertyDescriptor(envUtils, constructorIndex);
+        this.singleConstructorDescriptor = new SingleConstructorPropertyDescriptor(envUtils, constructorIndex);
     }
 
     public static boolean hasSpringValidatedAnnotation(TypeElement element) {
@@ -154,9 +172,10 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
 
         var annotationPrefix = NameFormatter.firstNonEmpty(annotation.prefix(), annotation.value());
         var prefix = NameFormatter.combine(envPrefix, annotationPrefix);
-        var params = new Params(descriptor, decorators, prefix, annotatedElement, null, new ArrayList<>(additionalDoc), hasSpringValidatedAnnotation(element));
+        var params = new Params(descriptor, decorators, prefix, annotationPrefix, annotatedElement, null, new ArrayList<>(additionalDoc), hasSpringValidatedAnnotation(element));
 
         this.visitType(element, params);
+        typeTemplates.clear(); // templates reference compiler trees
     }
 
     /**
@@ -186,8 +205,18 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
         Log.withContext(element).info("Consider using @Valid annotation on this property");
     }
 
+    /**
+     * @return types visited since the last call, the set is cleared afterward
+     */
+    public Set<TypeElement> drainVisitedTypes() {
+        var types = new LinkedHashSet<>(visitedTypes);
+        visitedTypes.clear();
+        return types;
+    }
+
     @Override
     public Void visitType(TypeElement e, Params params) {
+        visitedTypes.add(e);
         this.visitEnclosedFields(e, params);
         return null; // no super call (we don't need to visit all subclasses and methods)
     }
@@ -202,7 +231,7 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
             if (hasRecursiveType(enclosed, params)) {
                 // visiting recursive types will result in stack overflow
                 var nestingAdditionalDocs = new ArrayList<>(params.additionalDoc);
-                var nestingParams = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.annotatedElement, params.nameOverride, nestingAdditionalDocs, params.validationActive);
+                var nestingParams = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.propertyPrefix, params.annotatedElement, params.nameOverride, nestingAdditionalDocs, params.validationActive);
                 addConstructorParameterForAttribute((VariableElement) enclosed, nestingParams);
                 addVariableAsDecorator(enclosed, nestingParams);
                 Log.withContext(enclosed).info("Documenting recursive type, ensure proper documentation is provided for this property");
@@ -244,7 +273,7 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
     public Void visitVariable(VariableElement e, Params params) {
         var type = e.asType();
         var nestingAdditionalDocs = new ArrayList<>(params.additionalDoc);
-        var nestingParams = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.annotatedElement, params.nameOverride, nestingAdditionalDocs, params.validationActive);
+        var nestingParams = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.propertyPrefix, params.annotatedElement, params.nameOverride, nestingAdditionalDocs, params.validationActive);
 
         addConstructorParameterForAttribute(e, nestingParams);
 
@@ -281,16 +310,19 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
             return;
 
         Optional<ExecutableElement> constructor = Optional.empty();
+        AbstractConstructorPropertyDescriptor descriptor = null;
         try {
             // check if there is a constructor used for binding,
             // and allow throwing exception in case of name override with @Name annotation
             if (annotatedConstructorDescriptor.isProperty(e, true)) {
                 constructor = annotatedConstructorDescriptor.getConstructor((TypeElement) e.getEnclosingElement());
+                descriptor = annotatedConstructorDescriptor;
             } else if (singleConstructorDescriptor.isProperty(e, true)) {
                 constructor = singleConstructorDescriptor.getConstructor((TypeElement) e.getEnclosingElement());
+                descriptor = singleConstructorDescriptor;
             }
         } catch (AbstractConstructorPropertyDescriptor.PropertyHasNameAnnotationException ex) {
-            var paramsOverride = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.annotatedElement, ex.getAnnotationValue(), params.additionalDoc, params.validationActive);
+            var paramsOverride = new Params(params.propertyDescriptor, params.decorators, params.namePrefix, params.propertyPrefix, params.annotatedElement, ex.getAnnotationValue(), params.additionalDoc, params.validationActive);
             visitVariableWithType(ex.getParameter(), ex.getParameter().asType(), paramsOverride);
             return;
         }
@@ -298,7 +330,7 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
         if (constructor.isEmpty())
             return;
 
-        var param = AbstractPropertyDescriptor.getMethodParam(constructor.get(), e.getSimpleName().toString(), e.asType(), envUtils.types());
+        var param = descriptor.getConstructorParam(constructor.get(), e);
         if (param.isEmpty())
             return; // this should already be checked by isProperty method
 
@@ -380,7 +412,7 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
                 recommendValidAnnotation(e, params /*passing old params with validation status from upper context*/);
 
                 if (isNested(e, declElement)) {
-                    this.visit(declElement, paramsWithName);
+                    visitNestedType((TypeElement) declElement, paramsWithName);
                     return;
                 }
 
@@ -396,7 +428,7 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
             }
             case RECORD -> { // visit record components
                 recommendValidAnnotation(e, params /*passing old params with validation status from upper context*/);
-                this.visit(declElement, paramsWithName);
+                visitNestedType((TypeElement) declElement, paramsWithName);
             }
 
             case ENUM ->  // nothing to visit in enum
@@ -406,6 +438,40 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
         }
     }
 
+    /**
+     * Visits a nested type using its template
+     * <p>
+     * The template is created by scanning the type without the name prefix and additional docs
+     * on the first visit and reused for every following property with the same type.
+     * Messages are reported only when the template is created.
+     */
+    private void visitNestedType(TypeElement type, Params params) {
+        var key = new TemplateKey(type, params.validationActive());
+        var template = typeTemplates.get(key);
+        if (template == null) {
+            template = createTemplate(type, params);
+            typeTemplates.put(key, template);
+        }
+
+        visitedTypes.addAll(template.visitedTypes());
+        for (var decorator : template.decorators()) {
+            params.decorators.add(decorator.withPrefix(params.namePrefix, params.propertyPrefix, params.additionalDoc));
+        }
+    }
+
+    private TypeTemplate createTemplate(TypeElement type, Params params) {
+        var outerVisitedTypes = new ArrayList<>(visitedTypes);
+        visitedTypes.clear();
+
+        var decorators = new ArrayList<ElementDecorator>();
+        this.visit(type, new Params(params.propertyDescriptor, decorators, "", "", params.annotatedElement, null, new ArrayList<>(), params.validationActive));
+
+        var template = new TypeTemplate(List.copyOf(decorators), new LinkedHashSet<>(visitedTypes));
+        visitedTypes.clear();
+        visitedTypes.addAll(outerVisitedTypes);
+        return template;
+    }
+
     /**
      * @return true if {@link jakarta.validation.Valid @Valid} annotation is present on the element, false otherwise
      */
@@ -451,18 +517,60 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
      * @return true if the type is convertible by Spring conversion services, false otherwise
      */
     private boolean isSpringConvertible(TypeElement type) {
-        try {
-            var sourceType = String.class;
-            var targetType = Class.forName(type.getQualifiedName().toString());
+        return springConvertibleTypes.computeIfAbsent(type.getQualifiedName().toString(), name -> {
+            try {
+                var sourceType = String.class;
+                var targetType = Class.forName(name);
+
+                return conversionService.canConvert(sourceType, targetType);
+            } catch (ClassNotFoundException e) {
+                return hasStringConversion(type);
+            }
+        });
+    }
+
+    /**
+     * Decides convertibility of types which are not available to the processor (like types from compiled sources)
+     * without loading them.
+     * <p>
+     * Constructors accepting a single {@code String} are not considered
+     * as they are common for nested configuration classes with constructor binding.
+     *
+     * @return true if the type is an enum or has public static {@code valueOf}, {@code of} or {@code from}
+     * factory method accepting {@code String}, false otherwise
+     */
+    private boolean hasStringConversion(TypeElement type) {
+        if (type.getKind() == ElementKind.ENUM) {
+            return true;
+        }
 
-            return conversionService.canConvert(sourceType, targetType);
-        } catch (ClassNotFoundException e) {
+        for (var enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && enclosed.getModifiers().containsAll(Set.of(Modifier.PUBLIC, Modifier.STATIC))
+                    && STRING_FACTORY_METHODS.contains(enclosed.getSimpleName().toString())) {
+                var method = (ExecutableElement) enclosed;
+                if (hasSingleStringParameter(method) && envUtils.types().isSameType(method.getReturnType(), type.asType())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean hasSingleStringParameter(ExecutableElement executable) {
+        if (executable.getParameters().size() != 1) {
             return false;
         }
+        var parameterType = executable.getParameters().get(0).asType();
+        var stringType = envUtils.elements().getTypeElement(String.class.getCanonicalName()).asType();
+        return envUtils.types().isSameType(parameterType, stringType);
     }
 
     private void addVariableAsDecorator(Element e, Params params) {
-        params.decorators.add(new ElementDecorator(e, params.namePrefix, envUtils, params.additionalDoc));
+        var decorator = new ElementDecorator(e, params.namePrefix, envUtils, params.additionalDoc);
+        decorator.setPropertyName(params.propertyPrefix);
+        params.decorators.add(decorator);
     }
 
     /**
@@ -490,7 +598,25 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
         }
     }
 
+    private record TemplateKey(TypeElement type, boolean validationActive) {
+    }
+
+    /**
+     * Properties of a nested type with names relative to the type
+     * and only the docs collected inside the type
+     *
+     * @param decorators   properties of the type
+     * @param visitedTypes types visited while scanning the type
+     */
+    private record TypeTemplate(List<ElementDecorator> decorators, Set<TypeElement> visitedTypes) {
+    }
+
+    /**
+     * @param namePrefix     environment variable name of the current element
+     * @param propertyPrefix canonical Spring Boot property name of the current element
+     */
     public record Params(PropertyDescriptor propertyDescriptor, List<ElementDecorator> decorators, String namePrefix,
+                         String propertyPrefix,
                          Element annotatedElement,
                          String nameOverride,
                          List<DocTree> additionalDoc, boolean validationActive) {
@@ -514,7 +640,8 @@ public class PropertiesClassScanner extends ElementScanner14<Void, PropertiesCla
          */
         public Params divingClone(String name, boolean validationActive, boolean splitOptionsOnCapital) {
             var newPrefix = getNewPrefix(name, splitOptionsOnCapital);
-            return new Params(this.propertyDescriptor, decorators, newPrefix, annotatedElement, null, additionalDoc, validationActive);
+            var newPropertyPrefix = NameFormatter.joinProperty(propertyPrefix, NameFormatter.toDashedCase(NameFormatter.firstNonEmpty(nameOverride, name)));
+            return new Params(this.propertyDescriptor, decorators, newPrefix, newPropertyPrefix, annotatedElement, null, additionalDoc, validationActive);
         }
     }
 }
@@ -0,0 +1,114 @@
+package cz.lukaskabc.cvut.processor.visitor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Index of symbols declared in types and packages used for resolving names in the scope of an element.
+ * <p>
+ * Members of a type (or package) are indexed when the type is first used as a scope.
+ * Names are resolved from the innermost enclosing type outwards, so declarations in inner types
+ * shadow declarations in outer types. Within a single type, variables shadow types and types shadow other members.
+ *
+ * @implNote Only members declared directly in the type are indexed, inherited members are not.
+ */
+class SymbolIndex {
+
+    /**
+     * Members of already indexed scopes mapped by their simple name
+     */
+    private final Map<Element, Map<String, Element>> scopes = new HashMap<>();
+
+    /**
+     * Resolves a variable (or other member) visible in the scope of the context element
+     *
+     * @param name    name is split by dot and used as a path in the element tree
+     * @param context element whose scope is searched, when it is a type, its members are searched first
+     */
+    Optional<Element> resolveMember(String name, Element context) {
+        var path = name.split("\\.");
+        for (var scope = context; scope != null; scope = scope.getEnclosingElement()) {
+            if (isType(scope)) {
+                var member = membersOf(scope).get(path[0]);
+                if (member != null) {
+                    return resolvePath(member, path);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Resolves a type visible in the scope of the context element
+     * (enclosing types, their member types and types from the same package)
+     *
+     * @param name    name is split by dot and used as a path in the element tree
+     * @param context element whose scope is searched
+     */
+    Optional<Element> resolveType(String name, Element context) {
+        var path = name.split("\\.");
+        for (var scope = context; scope != null; scope = scope.getEnclosingElement()) {
+            if (isType(scope)) {
+                if (scope.getSimpleName().contentEquals(path[0])) {
+                    return resolvePath(scope, path);
+                }
+
+                var member = membersOf(scope).get(path[0]);
+                if (member != null && isType(member)) {
+                    return resolvePath(member, path);
+                }
+            } else if (scope instanceof PackageElement) {
+                var member = membersOf(scope).get(path[0]);
+                if (member != null) {
+                    return resolvePath(member, path);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Searches the element for members matching each following part of the path
+     */
+    private Optional<Element> resolvePath(Element element, String[] path) {
+        for (int i = 1; i < path.length && element != null; i++) {
+            element = membersOf(element).get(path[i]);
+        }
+        return Optional.ofNullable(element);
+    }
+
+    private Map<String, Element> membersOf(Element scope) {
+        return scopes.computeIfAbsent(scope, s -> {
+            var members = new HashMap<String, Element>();
+            for (var member : s.getEnclosedElements()) {
+                var name = member.getSimpleName().toString();
+                var present = members.get(name);
+                if (present == null || shadowingRank(member) < shadowingRank(present)) {
+                    members.put(name, member);
+                }
+            }
+            return members;
+        });
+    }
+
+    /**
+     * @return lower number for members shadowing other members with the same name
+     */
+    private static int shadowingRank(Element element) {
+        if (element.getKind().isField()) {
+            return 0;
+        }
+        if (isType(element)) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static boolean isType(Element element) {
+        return element.getKind().isClass() || element.getKind().isInterface();
+    }
+}